@@ -0,0 +1,51 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+@Data
+@ConfigurationProperties(prefix = "app.cache")
+public class CachingProperties {
+
+    private final Product product = new Product();
+
+    private final Search search = new Search();
+
+    private final Export export = new Export();
+
+    @Data
+    public static class Product {
+
+        /** Maximum number of products kept by the by-id cache. */
+        private long maxSize = 10_000;
+    }
+
+    @Data
+    public static class Search {
+
+        /** Maximum number of cached search result pages. */
+        private long maxPages = 1_000;
+
+        /** Maximum number of cached match counts. */
+        private long maxCounts = 1_000;
+
+        /** Maximum number of cached facet count sets. */
+        private long maxFacets = 1_000;
+    }
+
+    @Data
+    public static class Export {
+
+        /** Serve repeat exports of the same filter and format from a generated file. */
+        private boolean enabled = true;
+
+        /** Where generated files are kept; a new temporary directory when unset. */
+        private Path directory;
+
+        /** Total size of cached files; beyond it the least valuable files are evicted. */
+        private DataSize maxSize = DataSize.ofMegabytes(512);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Semaphore;
+
+@Configuration
+public class ExportConfig {
+
+    /** Shared by all split exports, so concurrent exports cannot take over the connection pool. */
+    @Bean
+    public Semaphore exportPartPermits(ExportProperties properties,
+                                       @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        int parallelism = properties.getParallelism();
+        if (parallelism < 1 || parallelism >= poolSize) {
+            throw new IllegalStateException("app.export.parallelism must be between 1 and "
+                    + (poolSize - 1) + " (below spring.datasource.hikari.maximum-pool-size), was " + parallelism);
+        }
+        return new Semaphore(parallelism, true);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.export")
+public class ExportProperties {
+
+    /**
+     * Parts of split exports generated at once, across all requests. Each part holds a pooled
+     * connection while it renders, so this must stay below the connection pool size.
+     */
+    private int parallelism = 4;
+
+    /** Ids covered by one part when splitting by id range; about the rows per part while ids are dense. */
+    private long partSize = 100_000;
+}
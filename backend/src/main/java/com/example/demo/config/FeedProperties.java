@@ -0,0 +1,23 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.feed")
+public class FeedProperties {
+
+    /** Recent changes kept for subscribers resuming with Last-Event-ID. */
+    private int capacity = 10_000;
+
+    /** Open change streams allowed at once. */
+    private int maxSubscribers = 10_000;
+
+    /** Idle interval after which a comment line is sent to keep the connection alive. */
+    private Duration heartbeat = Duration.ofSeconds(30);
+
+    /** Lifetime of one stream; clients reconnect and resume from their last event. */
+    private Duration timeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,50 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.import")
+public class ImportProperties {
+
+    /** Number of valid rows looked up and written per batch. */
+    private int chunkSize = 1000;
+
+    /** Changed rows listed in a dry-run result; the counts always cover every row. */
+    private int dryRunMaxChanges = 1000;
+
+    /** Row errors listed in a result or job status; the error count always covers every row. */
+    private int maxErrors = 1000;
+
+    private final Jobs jobs = new Jobs();
+
+    private final Pipeline pipeline = new Pipeline();
+
+    @Data
+    public static class Jobs {
+
+        /** Imports processed in parallel. */
+        private int maxConcurrent = 2;
+
+        /** Submitted imports allowed to wait for a free worker before new ones are rejected. */
+        private int queueCapacity = 10;
+
+        /** How long finished jobs stay queryable. */
+        private Duration retention = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class Pipeline {
+
+        /** Rows handed from the reader to a validation worker at a time. */
+        private int batchSize = 500;
+
+        /** Threads validating rows; defaults to the number of available cores. */
+        private int workers = Runtime.getRuntime().availableProcessors();
+
+        /** Batches read ahead of the writer before the reader blocks. */
+        private int queueCapacity = 16;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.demo.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Writes {@code BigDecimal} values whose unscaled value fits in a long (all prices do) without
+ * {@link BigDecimal#toString()} or {@link java.math.BigInteger}: as digits from a char buffer in
+ * JSON, and as a CBOR decimal fraction of two integers in CBOR. Other values, and other formats,
+ * use the generator's own encoding.
+ */
+public class PlainDecimalSerializer extends StdSerializer<BigDecimal> {
+
+    /** Tag 4: decimal fraction [exponent, mantissa] (RFC 8949, section 3.4.4). */
+    private static final int CBOR_DECIMAL_FRACTION = 4;
+    private static final int MAX_LONG_DIGITS = 18;
+
+    public PlainDecimalSerializer() {
+        super(BigDecimal.class);
+    }
+
+    @Override
+    public void serialize(BigDecimal value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        int scale = value.scale();
+        if (scale < 0 || value.precision() > MAX_LONG_DIGITS) {
+            gen.writeNumber(value);
+            return;
+        }
+        // A compact BigDecimal with scale 0 hands back its long without allocating
+        long unscaled = value.scaleByPowerOfTen(scale).longValueExact();
+        if (gen instanceof CBORGenerator cbor) {
+            cbor.writeTag(CBOR_DECIMAL_FRACTION);
+            cbor.writeStartArray(value, 2);
+            cbor.writeNumber(-scale);
+            cbor.writeNumber(unscaled);
+            cbor.writeEndArray();
+        } else if (gen.canWriteFormattedNumbers()) {
+            writeDigits(unscaled, scale, gen);
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    private static void writeDigits(long unscaled, int scale, JsonGenerator gen) throws IOException {
+        // sign, up to 18 digits, point, and leading zeros when the scale exceeds the digit count
+        char[] text = new char[MAX_LONG_DIGITS + scale + 3];
+        int pos = text.length;
+        long rest = Math.abs(unscaled);
+        for (int i = 0; i < scale; i++) {
+            text[--pos] = (char) ('0' + rest % 10);
+            rest /= 10;
+        }
+        if (scale > 0) {
+            text[--pos] = '.';
+        }
+        do {
+            text[--pos] = (char) ('0' + rest % 10);
+            rest /= 10;
+        } while (rest > 0);
+        if (unscaled < 0) {
+            text[--pos] = '-';
+        }
+        gen.writeNumber(text, pos, text.length - pos);
+    }
+}
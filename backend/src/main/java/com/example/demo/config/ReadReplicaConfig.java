@@ -0,0 +1,91 @@
+package com.example.demo.config;
+
+import com.example.demo.datasource.ReadYourWritesFilter;
+import com.example.demo.datasource.ReplicaDataSource;
+import com.example.demo.datasource.ReplicationDelayPublisher;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes read-only transactions to read replicas. Replaces the auto-configured data source with
+ * a lazy proxy over the primary pool: the connection is only fetched once the transaction has
+ * marked it read-only, so read-only transactions can take it from {@link ReplicaDataSource}
+ * instead. Everything else, and any read that must see a write just made, uses the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource, DataSourceProperties dataSource,
+                                               ReadReplicaProperties properties, MeterRegistry meterRegistry) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (String url : properties.getUrls()) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + (pools.size() + 1));
+            config.setJdbcUrl(url);
+            config.setUsername(properties.getUsername() != null ? properties.getUsername() : dataSource.determineUsername());
+            config.setPassword(properties.getPassword() != null ? properties.getPassword() : dataSource.determinePassword());
+            config.setReadOnly(true);
+            config.setMaximumPoolSize(properties.getMaximumPoolSize());
+            config.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+            // Start even if a replica is down; the health check picks it up once it is back
+            config.setInitializationFailTimeout(-1);
+            config.setMetricRegistry(meterRegistry);
+            pools.add(new HikariDataSource(config));
+        }
+        return new ReplicaDataSource(primaryDataSource, pools, properties.getHealthCheckInterval(),
+                properties.getMaxLag(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryDataSource);
+        proxy.setReadOnlyDataSource(replicaDataSource);
+        return proxy;
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReadReplicaProperties properties) {
+        return new ReadYourWritesFilter(properties.getReadYourWrites());
+    }
+
+    @Bean
+    public ReplicationDelayPublisher replicationDelayPublisher(ApplicationEventPublisher eventPublisher,
+                                                               ReadReplicaProperties properties) {
+        return new ReplicationDelayPublisher(eventPublisher,
+                properties.getMaxLag().plus(properties.getHealthCheckInterval()));
+    }
+
+    /** Reports each replica; always UP, since reads fall back to the primary. */
+    @Bean
+    public HealthIndicator readReplicasHealthIndicator(ReplicaDataSource replicaDataSource) {
+        return () -> {
+            Health.Builder health = Health.up();
+            replicaDataSource.statuses().forEach(status -> health.withDetail(status.name(), status));
+            return health.build();
+        };
+    }
+}
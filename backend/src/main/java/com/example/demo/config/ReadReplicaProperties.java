@@ -0,0 +1,38 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.read-replicas")
+public class ReadReplicaProperties {
+
+    /** Send read-only transactions to the replicas below; writes always use spring.datasource. */
+    private boolean enabled = false;
+
+    /** JDBC URLs of the replicas. */
+    private List<String> urls = new ArrayList<>();
+
+    /** Replica credentials; default to spring.datasource's. */
+    private String username;
+
+    private String password;
+
+    /** Connections per replica pool. */
+    private int maximumPoolSize = 10;
+
+    /** How long to wait for a replica connection before falling back to the primary. */
+    private Duration connectionTimeout = Duration.ofSeconds(2);
+
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    /** Replicas that have not caught up with the primary for longer than this are not used. */
+    private Duration maxLag = Duration.ofSeconds(10);
+
+    /** After a client's write, its requests stay on the primary for this long; 0 disables. */
+    private Duration readYourWrites = Duration.ofSeconds(5);
+}
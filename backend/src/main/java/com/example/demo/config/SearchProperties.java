@@ -0,0 +1,34 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.search")
+public class SearchProperties {
+
+    private final KeywordIndex keywordIndex = new KeywordIndex();
+
+    private final Facets facets = new Facets();
+
+    @Data
+    public static class KeywordIndex {
+
+        /** Serve keyword filters from the in-memory n-gram index instead of SQL LIKE. */
+        private boolean enabled = true;
+
+        /** Above this many matches the keyword falls back to SQL LIKE to keep the IN list small. */
+        private int maxIds = 5000;
+    }
+
+    @Data
+    public static class Facets {
+
+        /** Ascending bounds splitting prices into facet buckets; n bounds give n + 1 buckets. */
+        private List<BigDecimal> priceBounds = List.of(
+                new BigDecimal("1000"), new BigDecimal("5000"), new BigDecimal("10000"), new BigDecimal("50000"));
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.stock")
+public class StockProperties {
+
+    /** Number of independently locked accumulators pending stock deltas are spread over. */
+    private int stripes = 16;
+}
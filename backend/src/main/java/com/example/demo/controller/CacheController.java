@@ -0,0 +1,32 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.CacheStatistics;
+import com.example.demo.service.ExportFileCache;
+import com.example.demo.service.ProductCache;
+import com.example.demo.service.SearchResultCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/caches")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final ProductCache productCache;
+    private final SearchResultCache searchResultCache;
+    private final ExportFileCache exportFileCache;
+
+    @GetMapping
+    public List<CacheStatistics> statistics() {
+        List<CacheStatistics> statistics = new ArrayList<>();
+        statistics.add(productCache.statistics());
+        statistics.addAll(searchResultCache.statistics());
+        statistics.add(exportFileCache.statistics());
+        return statistics;
+    }
+}
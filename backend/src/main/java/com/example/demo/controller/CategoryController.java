@@ -1,11 +1,15 @@
 package com.example.demo.controller;
 
 import com.example.demo.entity.Category;
-import com.example.demo.repository.CategoryRepository;
+import com.example.demo.service.CategoryRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -14,10 +18,23 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CategoryController {
 
-    private final CategoryRepository categoryRepository;
+    private final CategoryRegistry categoryRegistry;
 
     @GetMapping
-    public List<Category> findAll() {
-        return categoryRepository.findAllByOrderBySortOrderAsc();
+    public ResponseEntity<List<Category>> findAll(WebRequest request) {
+        CategoryRegistry.Snapshot snapshot = categoryRegistry.getSnapshot();
+        if (request.checkNotModified(snapshot.version())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.version())
+                .cacheControl(CacheControl.noCache())
+                .body(snapshot.categories());
+    }
+
+    @PostMapping("/reload")
+    public List<Category> reload() {
+        categoryRegistry.invalidate();
+        return categoryRegistry.getCategories();
     }
 }
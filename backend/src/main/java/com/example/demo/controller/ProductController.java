@@ -1,37 +1,98 @@
 package com.example.demo.controller;
 
+import com.example.demo.config.JacksonConfig;
+import com.example.demo.dto.ExportSplit;
+import com.example.demo.dto.FileFormat;
+import com.example.demo.dto.ImportJobStatus;
 import com.example.demo.dto.ImportResult;
 import com.example.demo.dto.PageResponse;
+import com.example.demo.dto.ProductListItem;
 import com.example.demo.dto.ProductSearchRequest;
+import com.example.demo.dto.StockAdjustmentBulkRequest;
+import com.example.demo.dto.StockAdjustmentResult;
+import com.example.demo.dto.StockDeltaRequest;
 import com.example.demo.entity.Product;
 import com.example.demo.service.ExcelService;
+import com.example.demo.service.ExportFileCache;
+import com.example.demo.service.ImportJobService;
 import com.example.demo.service.ProductService;
+import com.example.demo.service.StockService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
 public class ProductController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    /** Concatenated CBOR items (RFC 8742), the binary counterpart of NDJSON. */
+    private static final MediaType CBOR_SEQUENCE = MediaType.parseMediaType("application/cbor-seq");
+    private static final MediaType ZIP = MediaType.parseMediaType("application/zip");
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final ProductService productService;
     private final ExcelService excelService;
+    private final ImportJobService importJobService;
+    private final ExportFileCache exportFileCache;
+    private final StockService stockService;
+    private final ObjectMapper objectMapper;
+    private final MappingJackson2SmileHttpMessageConverter smileConverter;
+    private final MappingJackson2CborHttpMessageConverter cborConverter;
 
     @GetMapping
-    public PageResponse<Product> search(@Valid ProductSearchRequest request) {
+    public PageResponse<ProductListItem> search(@Valid ProductSearchRequest request) {
         return productService.search(request);
     }
 
+    /**
+     * Whole result set in one streamed response, for bulk consumers. NDJSON unless the Accept
+     * header asks for Smile or CBOR explicitly.
+     */
+    @GetMapping("/bulk")
+    public void bulk(@Valid ProductSearchRequest request,
+                     @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = "*/*") String accept,
+                     HttpServletResponse response) throws IOException {
+        List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+        ObjectMapper mapper;
+        if (accepts(accepted, JacksonConfig.SMILE)) {
+            response.setContentType(JacksonConfig.SMILE.toString());
+            mapper = smileConverter.getObjectMapper();
+        } else if (accepts(accepted, JacksonConfig.CBOR) || accepts(accepted, CBOR_SEQUENCE)) {
+            response.setContentType(CBOR_SEQUENCE.toString());
+            mapper = cborConverter.getObjectMapper();
+        } else {
+            response.setContentType(NDJSON);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            mapper = objectMapper;
+        }
+        productService.writeBulk(request, mapper, response.getOutputStream());
+    }
+
     @GetMapping("/{id}")
     public Product findById(@PathVariable Long id) {
         return productService.findById(id);
@@ -54,20 +115,91 @@ public class ProductController {
         productService.delete(id);
     }
 
+    @PostMapping("/{id}/stock")
+    public StockAdjustmentResult adjustStock(@PathVariable Long id, @Valid @RequestBody StockDeltaRequest request) {
+        return stockService.adjust(id, request.getDelta());
+    }
+
+    @PostMapping("/stock")
+    public List<StockAdjustmentResult> adjustStocks(@Valid @RequestBody StockAdjustmentBulkRequest request) {
+        return stockService.adjustAll(request.getAdjustments());
+    }
+
     @GetMapping("/export")
-    public void exportExcel(@Valid ProductSearchRequest request, HttpServletResponse response) throws IOException {
+    public void exportExcel(@Valid ProductSearchRequest request,
+                            @RequestParam(defaultValue = "XLSX") FileFormat format,
+                            @RequestParam(defaultValue = "NONE") ExportSplit split,
+                            HttpServletRequest httpRequest,
+                            HttpServletResponse response) throws IOException {
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        String filename = "products_" + timestamp + ".xlsx";
+        String extension = split == ExportSplit.NONE ? format.getExtension() : "zip";
+        String filename = "products_" + timestamp + "." + extension;
 
-        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        response.setContentType(split == ExportSplit.NONE ? format.getMediaType().toString() : ZIP.toString());
         response.setHeader("Content-Disposition",
                 "attachment; filename*=UTF-8''" + URLEncoder.encode(filename, StandardCharsets.UTF_8));
 
-        excelService.exportExcel(request, response.getOutputStream());
+        if (split != ExportSplit.NONE) {
+            // Meant for exports too large to keep around, so split exports are never cached
+            excelService.exportZip(request, format, split, response.getOutputStream());
+            return;
+        }
+        if (!exportFileCache.isEnabled()) {
+            excelService.export(request, format, response.getOutputStream());
+            return;
+        }
+        ExportFileCache.ExportFile file = exportFileCache.get(request, format);
+        response.setContentLengthLong(file.size());
+        sendFile(file, httpRequest, response);
     }
 
+    /** {@code format} defaults to the uploaded file's extension (.csv, .tsv/.txt, otherwise xlsx). */
     @PostMapping("/import")
-    public ImportResult importExcel(@RequestParam("file") MultipartFile file) {
-        return excelService.importExcel(file);
+    public ImportResult importExcel(@RequestParam("file") MultipartFile file,
+                                    @RequestParam(required = false) FileFormat format,
+                                    @RequestParam(defaultValue = "false") boolean dryRun) {
+        return excelService.importFile(file, resolveFormat(file, format), dryRun);
+    }
+
+    @PostMapping("/import/jobs")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImportJobStatus submitImportJob(@RequestParam("file") MultipartFile file,
+                                           @RequestParam(required = false) FileFormat format,
+                                           @RequestParam(defaultValue = "false") boolean dryRun) {
+        return importJobService.submit(file, resolveFormat(file, format), dryRun);
+    }
+
+    @GetMapping("/import/jobs/{jobId}")
+    public ImportJobStatus getImportJob(@PathVariable String jobId) {
+        return importJobService.getStatus(jobId);
+    }
+
+    private static FileFormat resolveFormat(MultipartFile file, FileFormat requested) {
+        return requested != null ? requested : FileFormat.fromFilename(file.getOriginalFilename());
+    }
+
+    /**
+     * Lets Tomcat send the file with sendfile after the request returns, which is the only
+     * zero-copy path. Other containers get a buffered copy: {@link FileChannel#transferTo} into a
+     * channel over the servlet stream goes through a heap buffer.
+     */
+    private void sendFile(ExportFileCache.ExportFile file, HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, file.size());
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            for (long position = 0; position < file.size(); ) {
+                position += channel.transferTo(position, file.size() - position, target);
+            }
+        }
+    }
+
+    private static boolean accepts(List<MediaType> accepted, MediaType type) {
+        return accepted.stream().anyMatch(type::equalsTypeAndSubtype);
     }
 }
@@ -0,0 +1,190 @@
+package com.example.demo.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections from the healthy replicas in turn, or from the primary when none is
+ * usable or the thread is pinned with {@link ReplicaRouting}. Meant as the read-only target of a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, so only read-only
+ * transactions get here.
+ *
+ * <p>A background check asks each replica whether it has replayed the primary's current WAL
+ * position. A replica's lag is the time since it was last seen caught up; replicas lagging more
+ * than {@code maxLag} or failing the check are skipped until a later check passes. A replica
+ * that fails to hand out a connection is skipped right away.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements DisposableBean {
+
+    private static final String PRIMARY_POSITION_SQL = "SELECT pg_current_wal_lsn()::text";
+    // A database that is not in recovery is a standalone copy and always counts as caught up
+    private static final String CAUGHT_UP_SQL =
+            "SELECT NOT pg_is_in_recovery() OR pg_last_wal_replay_lsn() >= ?::pg_lsn";
+    private static final long NEVER = Long.MIN_VALUE;
+    private static final String NOT_CHECKED = "not checked yet";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryConnections;
+    private final ScheduledExecutorService healthCheck;
+
+    public ReplicaDataSource(DataSource primary, List<HikariDataSource> replicaPools, Duration healthCheckInterval,
+                             Duration maxLag, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicaPools.stream().map(pool -> new Replica(pool, meterRegistry)).toList();
+        this.maxLagNanos = maxLag.toNanos();
+        this.primaryConnections = connectionCounter("primary", meterRegistry);
+        this.healthCheck = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("replica-health-check").daemon().factory());
+        healthCheck.scheduleWithFixedDelay(this::checkReplicas, 0, healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public record ReplicaStatus(String name, boolean healthy, Duration lag, String problem) {
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!ReplicaRouting.isPinnedToPrimary()) {
+            int start = next.getAndIncrement();
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+                if (!replica.healthy) continue;
+                try {
+                    Connection connection = replica.pool.getConnection();
+                    replica.connections.increment();
+                    return connection;
+                } catch (SQLException e) {
+                    replica.setHealth(false, e.getMessage());
+                }
+            }
+        }
+        primaryConnections.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica connections use the configured credentials");
+    }
+
+    public List<ReplicaStatus> statuses() {
+        return replicas.stream().map(Replica::status).toList();
+    }
+
+    @Override
+    public void destroy() {
+        healthCheck.shutdownNow();
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private void checkReplicas() {
+        long checkStart = System.nanoTime();
+        String position;
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(PRIMARY_POSITION_SQL)) {
+            rs.next();
+            position = rs.getString(1);
+        } catch (SQLException e) {
+            // Without a position to compare with, the replicas keep their last state
+            log.warn("Could not read the primary WAL position for the replica health check", e);
+            return;
+        }
+        for (Replica replica : replicas) {
+            replica.check(position, checkStart);
+        }
+    }
+
+    private static Counter connectionCounter(String target, MeterRegistry meterRegistry) {
+        return Counter.builder("db.read.connections")
+                .description("Connections handed to read-only transactions")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    private class Replica {
+
+        private final HikariDataSource pool;
+        private final Counter connections;
+        private volatile boolean healthy;
+        private volatile long caughtUpAt = NEVER;
+        private volatile String problem = NOT_CHECKED;
+
+        Replica(HikariDataSource pool, MeterRegistry meterRegistry) {
+            this.pool = pool;
+            this.connections = connectionCounter(pool.getPoolName(), meterRegistry);
+            Gauge.builder("db.replica.healthy", this, replica -> replica.healthy ? 1 : 0)
+                    .tag("replica", pool.getPoolName())
+                    .register(meterRegistry);
+            Gauge.builder("db.replica.lag", this, replica -> replica.lagNanos() / 1e9)
+                    .description("Time since the replica was last seen caught up with the primary")
+                    .baseUnit("seconds")
+                    .tag("replica", pool.getPoolName())
+                    .register(meterRegistry);
+        }
+
+        /** Everything the primary had written at {@code checkStart} is on the replica if it has replayed {@code position}. */
+        void check(String position, long checkStart) {
+            try (Connection connection = pool.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(CAUGHT_UP_SQL)) {
+                statement.setString(1, position);
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    if (rs.getBoolean(1)) {
+                        caughtUpAt = checkStart;
+                    }
+                }
+                boolean withinLag = caughtUpAt != NEVER && lagNanos() <= maxLagNanos;
+                setHealth(withinLag, withinLag ? null : "lagging behind the primary");
+            } catch (SQLException e) {
+                setHealth(false, e.getMessage());
+            }
+        }
+
+        void setHealth(boolean healthy, String problem) {
+            // The first check always logs, so replicas that are down from the start are reported too
+            boolean changed = this.healthy != healthy || this.problem == NOT_CHECKED;
+            this.problem = problem;
+            this.healthy = healthy;
+            if (changed && healthy) {
+                log.info("Replica {} is healthy, routing read-only transactions to it", pool.getPoolName());
+            } else if (changed) {
+                log.warn("Replica {} is unhealthy ({}), reads fall back to other replicas or the primary",
+                        pool.getPoolName(), problem);
+            }
+        }
+
+        long lagNanos() {
+            long caughtUp = caughtUpAt;
+            return caughtUp == NEVER ? Long.MAX_VALUE : System.nanoTime() - caughtUp;
+        }
+
+        ReplicaStatus status() {
+            long lag = lagNanos();
+            return new ReplicaStatus(pool.getPoolName(), healthy,
+                    lag == Long.MAX_VALUE ? null : Duration.ofNanos(lag), problem);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.demo.datasource;
+
+/**
+ * Per-thread override that keeps read-only transactions on the primary, e.g. for the rest of a
+ * request after the client has written.
+ */
+public final class ReplicaRouting {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private ReplicaRouting() {
+    }
+
+    public static void pinToPrimary() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        PINNED.remove();
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED.get() != null;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.datasource;
+
+import com.example.demo.event.ProductChangeReplicatedEvent;
+import com.example.demo.event.ProductChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows each committed product change with a {@link ProductChangeReplicatedEvent} after the
+ * longest lag a replica in use can have: the allowed lag plus one health check interval.
+ */
+public class ReplicationDelayPublisher {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final Executor delayed;
+
+    public ReplicationDelayPublisher(ApplicationEventPublisher eventPublisher, Duration delay) {
+        this.eventPublisher = eventPublisher;
+        this.delayed = CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        delayed.execute(() -> eventPublisher.publishEvent(new ProductChangeReplicatedEvent(event.productIds())));
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.demo.dto;
+
+/** How an export is divided into files that are generated in parallel and returned as one ZIP. */
+public enum ExportSplit {
+
+    /** A single file, not zipped. */
+    NONE,
+
+    /** One file per category. */
+    CATEGORY,
+
+    /** Files covering equal id ranges of {@code app.export.part-size} ids each. */
+    ID_RANGE
+}
@@ -0,0 +1,45 @@
+package com.example.demo.dto;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/** File layouts accepted by product import and produced by export. Columns follow the same headers. */
+public enum FileFormat {
+
+    XLSX("xlsx", MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"), '\0'),
+    CSV("csv", MediaType.parseMediaType("text/csv;charset=UTF-8"), ','),
+    TSV("tsv", MediaType.parseMediaType("text/tab-separated-values;charset=UTF-8"), '\t');
+
+    private final String extension;
+    private final MediaType mediaType;
+    private final char delimiter;
+
+    FileFormat(String extension, MediaType mediaType, char delimiter) {
+        this.extension = extension;
+        this.mediaType = mediaType;
+        this.delimiter = delimiter;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /** Field separator of the delimited formats. */
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    /** Format implied by an uploaded file name; .txt is read as TSV, anything unknown as XLSX. */
+    public static FileFormat fromFilename(String filename) {
+        if (filename == null) return XLSX;
+        String lower = filename.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".csv")) return CSV;
+        if (lower.endsWith(".tsv") || lower.endsWith(".txt")) return TSV;
+        return XLSX;
+    }
+}
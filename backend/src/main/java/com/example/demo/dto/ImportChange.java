@@ -0,0 +1,27 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/** A row that an import would write, as listed by a dry run. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportChange {
+
+    public enum Type { INSERT, UPDATE }
+
+    private String productCode;
+    private Type type;
+
+    /** Fields whose value differs from the stored product; empty for inserts. */
+    private List<FieldChange> fields;
+
+    public record FieldChange(String field, Object before, Object after) {
+    }
+}
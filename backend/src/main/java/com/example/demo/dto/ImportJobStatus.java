@@ -0,0 +1,39 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobStatus {
+
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private String jobId;
+    private State state;
+    private String fileName;
+    private int rowsProcessed;
+    private int insertedCount;
+    private int updatedCount;
+    private int unchangedCount;
+    private int errorCount;
+    private double rowsPerSecond;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String message;
+    /** The first {@code app.import.max-errors} errors; {@link #errorCount} covers every row. */
+    private List<ImportError> errors;
+    private boolean dryRun;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ImportChange> changes;
+}
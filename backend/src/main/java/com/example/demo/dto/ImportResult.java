@@ -1,5 +1,6 @@
 package com.example.demo.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,6 +18,18 @@ public class ImportResult {
     private int totalRows;
     private int insertedCount;
     private int updatedCount;
+
+    /** Rows identical to the stored product, which were not written. */
+    private int unchangedCount;
     private int errorCount;
+
+    /** The first {@code app.import.max-errors} errors; {@link #errorCount} covers every row. */
     private List<ImportError> errors;
+
+    /** Nothing was written; the counts and {@link #changes} show what the import would do. */
+    private boolean dryRun;
+
+    /** Rows a dry run would write, up to {@code app.import.dry-run-max-changes}. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ImportChange> changes;
 }
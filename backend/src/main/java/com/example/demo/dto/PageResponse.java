@@ -1,5 +1,6 @@
 package com.example.demo.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,8 +15,18 @@ import java.util.List;
 public class PageResponse<T> {
 
     private List<T> data;
+    /** Matching row count, or -1 when counting was skipped. */
     private long total;
     private boolean success;
     private int current;
     private int pageSize;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean totalEstimated;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ProductFacets facets;
 }
@@ -0,0 +1,33 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Match counts per facet value for a search filter. Each facet is counted with every filter
+ * except its own, so selecting a value does not hide the alternatives.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacets {
+
+    private List<ValueCount> category;
+    private List<ValueCount> status;
+    private List<RangeCount> price;
+
+    public record ValueCount(String value, long count) {
+    }
+
+    /** Prices from {@code from} (inclusive) to {@code to} (exclusive); an open end is omitted. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record RangeCount(BigDecimal from, BigDecimal to, long count) {
+    }
+}
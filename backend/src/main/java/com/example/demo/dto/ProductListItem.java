@@ -0,0 +1,70 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Product row of the search list, filled from a column projection instead of a full entity.
+ * Only the selected columns are set; unset ones are left out of the JSON.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductListItem {
+
+    /** Selectable columns in response order. */
+    public static final List<String> FIELDS = List.of(
+            "id", "productCode", "productName", "category", "price",
+            "stockQuantity", "status", "description", "createdAt", "updatedAt");
+
+    /** Columns shown by the list grid, used when the client does not ask for specific ones. */
+    public static final List<String> DEFAULT_FIELDS = List.of(
+            "id", "productCode", "productName", "category", "price",
+            "stockQuantity", "status", "updatedAt");
+
+    private Long id;
+    private String productCode;
+    private String productName;
+    private String category;
+    private BigDecimal price;
+    private Integer stockQuantity;
+    private String status;
+    private String description;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public Object get(String field) {
+        return switch (field) {
+            case "id" -> id;
+            case "productCode" -> productCode;
+            case "productName" -> productName;
+            case "category" -> category;
+            case "price" -> price;
+            case "stockQuantity" -> stockQuantity;
+            case "status" -> status;
+            case "description" -> description;
+            case "createdAt" -> createdAt;
+            case "updatedAt" -> updatedAt;
+            default -> throw new IllegalArgumentException("Unknown field: " + field);
+        };
+    }
+
+    public void set(String field, Object value) {
+        switch (field) {
+            case "id" -> id = (Long) value;
+            case "productCode" -> productCode = (String) value;
+            case "productName" -> productName = (String) value;
+            case "category" -> category = (String) value;
+            case "price" -> price = (BigDecimal) value;
+            case "stockQuantity" -> stockQuantity = (Integer) value;
+            case "status" -> status = (String) value;
+            case "description" -> description = (String) value;
+            case "createdAt" -> createdAt = (LocalDateTime) value;
+            case "updatedAt" -> updatedAt = (LocalDateTime) value;
+            default -> throw new IllegalArgumentException("Unknown field: " + field);
+        }
+    }
+}
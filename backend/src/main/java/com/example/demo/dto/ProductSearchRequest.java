@@ -6,6 +6,7 @@ import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 @Data
 public class ProductSearchRequest {
@@ -31,4 +32,25 @@ public class ProductSearchRequest {
     private Integer pageSize = 20;
 
     private String sorter;
+
+    /** OFFSET pages by {@code current}; CURSOR seeks from {@code cursor} and returns a next cursor. */
+    private Pagination pagination = Pagination.OFFSET;
+
+    /** Opaque position returned as {@code nextCursor} by the previous cursor page. */
+    private String cursor;
+
+    private CountMode countMode = CountMode.EXACT;
+
+    /**
+     * List columns to return, e.g. {@code fields=productCode,price}. Defaults to
+     * {@link ProductListItem#DEFAULT_FIELDS}; ignored by export and bulk.
+     */
+    private List<String> fields;
+
+    /** Adds per-category, per-status and per-price-bucket match counts to the response. */
+    private boolean facets;
+
+    public enum Pagination { OFFSET, CURSOR }
+
+    public enum CountMode { EXACT, ESTIMATED, NONE }
 }
@@ -0,0 +1,23 @@
+package com.example.demo.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentRequest {
+
+    @NotNull
+    private Long productId;
+
+    /** Amount added to the stock quantity; negative to take stock out. */
+    @NotNull
+    @Min(-StockDeltaRequest.MAX_DELTA)
+    @Max(StockDeltaRequest.MAX_DELTA)
+    private Integer delta;
+}
@@ -0,0 +1,24 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentResult {
+
+    private Long productId;
+    private boolean success;
+
+    /** Stock quantity after the write that applied this adjustment; absent when it was rejected. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer stockQuantity;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String message;
+}
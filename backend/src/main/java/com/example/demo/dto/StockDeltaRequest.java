@@ -0,0 +1,19 @@
+package com.example.demo.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class StockDeltaRequest {
+
+    /** Largest stock change one adjustment may make in either direction. */
+    public static final int MAX_DELTA = 1_000_000;
+
+    /** Amount added to the stock quantity; negative to take stock out. */
+    @NotNull
+    @Min(-MAX_DELTA)
+    @Max(MAX_DELTA)
+    private Integer delta;
+}
@@ -1,5 +1,6 @@
 package com.example.demo.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,6 +8,11 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 
 @Entity
@@ -48,14 +54,57 @@ public class Product {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /** {@link #computeContentHash()} as of the last write; {@code null} when not known. */
+    @JsonIgnore
+    @Column(name = "content_hash")
+    private Long contentHash;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        contentHash = computeContentHash();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        contentHash = computeContentHash();
+    }
+
+    /**
+     * 64-bit hash of the business fields except the product code, which identifies the row.
+     * The price is taken at the column's scale, so {@code 100} and {@code 100.00} hash alike.
+     */
+    public long computeContentHash() {
+        MessageDigest digest = newDigest();
+        update(digest, productName);
+        update(digest, category);
+        update(digest, price != null ? price.setScale(2, RoundingMode.HALF_UP).toPlainString() : null);
+        update(digest, stockQuantity != null ? stockQuantity.toString() : null);
+        update(digest, status);
+        update(digest, description);
+        return ByteBuffer.wrap(digest.digest()).getLong();
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update((byte) 0);
+            return;
+        }
+        // Length-prefixed, so values can't run into each other
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) 1);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            // Change detection only, not security
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -0,0 +1,15 @@
+package com.example.demo.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One committed product change as recorded in the change feed.
+ *
+ * @param sequence position in the feed, increasing by one per change
+ */
+public record ProductChange(@JsonIgnore long sequence, ProductChangedEvent.Type type, List<Long> productIds,
+                            LocalDateTime occurredAt) {
+}
@@ -0,0 +1,94 @@
+package com.example.demo.event;
+
+import com.example.demo.config.FeedProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ring buffer of the most recent committed product changes. Readers keep their own position and
+ * block in {@link #awaitAfter} until something newer is appended; the lock is a
+ * {@link ReentrantLock} so waiting virtual threads release their carrier.
+ */
+@Component
+public class ProductChangeFeed {
+
+    private final ProductChange[] buffer;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    /** Sequence of the newest change; 0 while the feed is empty. Guarded by {@link #lock}. */
+    private long latest;
+
+    public ProductChangeFeed(FeedProperties feedProperties) {
+        this.buffer = new ProductChange[Math.max(feedProperties.getCapacity(), 1)];
+    }
+
+    /** Changes after {@code after}, or a truncated marker when some of them were overwritten. */
+    public record Slice(List<ProductChange> changes, boolean truncated) {
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.lock();
+        try {
+            long sequence = ++latest;
+            buffer[index(sequence)] = new ProductChange(
+                    sequence, event.type(), List.copyOf(event.productIds()), LocalDateTime.now());
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long latestSequence() {
+        lock.lock();
+        try {
+            return latest;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Returns up to {@code max} changes following sequence {@code after}, oldest first. */
+    public Slice read(long after, int max) {
+        lock.lock();
+        try {
+            if (after < latest - buffer.length) {
+                return new Slice(List.of(), true);
+            }
+            long end = Math.min(latest, after + max);
+            List<ProductChange> changes = new ArrayList<>((int) Math.max(end - after, 0));
+            for (long sequence = after + 1; sequence <= end; sequence++) {
+                changes.add(buffer[index(sequence)]);
+            }
+            return new Slice(changes, false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Waits until a change newer than {@code after} exists. Returns false on timeout. */
+    public boolean awaitAfter(long after, Duration timeout) throws InterruptedException {
+        long remaining = timeout.toNanos();
+        lock.lock();
+        try {
+            while (latest <= after) {
+                if (remaining <= 0) return false;
+                remaining = appended.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % buffer.length);
+    }
+}
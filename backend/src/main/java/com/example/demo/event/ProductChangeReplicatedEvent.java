@@ -0,0 +1,11 @@
+package com.example.demo.event;
+
+import java.util.List;
+
+/**
+ * Published again for every {@link ProductChangedEvent} once the read replicas in use are
+ * expected to have applied it. Caches that may have been filled from a lagging replica in
+ * between drop the affected entries once more. Only published when read replicas are enabled.
+ */
+public record ProductChangeReplicatedEvent(List<Long> productIds) {
+}
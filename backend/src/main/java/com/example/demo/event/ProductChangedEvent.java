@@ -0,0 +1,21 @@
+package com.example.demo.event;
+
+import java.util.List;
+
+/**
+ * Published inside the writing transaction whenever products are created, updated or deleted,
+ * including Excel import upserts. Listeners that keep derived state (indexes, caches) should
+ * react after commit.
+ */
+public record ProductChangedEvent(Type type, List<Long> productIds) {
+
+    public enum Type { UPSERTED, DELETED }
+
+    public static ProductChangedEvent upserted(List<Long> productIds) {
+        return new ProductChangedEvent(Type.UPSERTED, productIds);
+    }
+
+    public static ProductChangedEvent deleted(List<Long> productIds) {
+        return new ProductChangedEvent(Type.DELETED, productIds);
+    }
+}
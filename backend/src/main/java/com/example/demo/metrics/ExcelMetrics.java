@@ -0,0 +1,98 @@
+package com.example.demo.metrics;
+
+import com.example.demo.dto.FileFormat;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for product file import and export (Excel, CSV and TSV). Phase timers split one run into
+ * its stages: import {@code read} / {@code validate} / {@code write}, and for Excel export
+ * {@code render} / {@code write}; delimited export streams in one pass and has no phases.
+ */
+@Component
+public class ExcelMetrics {
+
+    private final MeterRegistry registry;
+    private final Counter rowsParsed;
+    private final Counter rowsRejected;
+    private final Timer importRead;
+    private final Timer importValidate;
+    private final Timer importWrite;
+    private final Counter exportRows;
+    private final Counter exportBytes;
+    private final Timer exportRender;
+    private final Timer exportWrite;
+
+    public ExcelMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.rowsParsed = Counter.builder("excel.import.rows.parsed")
+                .description("Data rows read from uploaded files").register(registry);
+        this.rowsRejected = Counter.builder("excel.import.rows.rejected")
+                .description("Data rows that failed validation").register(registry);
+        this.importRead = phase("excel.import.phase", "read");
+        this.importValidate = phase("excel.import.phase", "validate");
+        this.importWrite = phase("excel.import.phase", "write");
+        this.exportRows = Counter.builder("excel.export.rows")
+                .description("Rows written to exported workbooks").register(registry);
+        this.exportBytes = Counter.builder("excel.export.bytes")
+                .description("Bytes of exported workbooks sent to clients").baseUnit("bytes").register(registry);
+        this.exportRender = phase("excel.export.phase", "render");
+        this.exportWrite = phase("excel.export.phase", "write");
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    public void importCompleted(Timer.Sample sample, FileFormat format, String outcome) {
+        sample.stop(Timer.builder("excel.import")
+                .tag("format", format.getExtension())
+                .tag("outcome", outcome)
+                .register(registry));
+    }
+
+    public void exportCompleted(Timer.Sample sample, FileFormat format, String outcome) {
+        sample.stop(Timer.builder("excel.export")
+                .tag("format", format.getExtension())
+                .tag("outcome", outcome)
+                .register(registry));
+    }
+
+    public void rowsParsed(int rows, int rejected) {
+        rowsParsed.increment(rows);
+        rowsRejected.increment(rejected);
+    }
+
+    public void importRead(long nanos) {
+        importRead.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void importValidate(long nanos) {
+        importValidate.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void importWrite(long nanos) {
+        importWrite.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void exported(long rows, long bytes) {
+        exportRows.increment(rows);
+        exportBytes.increment(bytes);
+    }
+
+    public void exportRender(long nanos) {
+        exportRender.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void exportWrite(long nanos) {
+        exportWrite.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer phase(String name, String phase) {
+        return Timer.builder(name).tag("phase", phase).register(registry);
+    }
+}
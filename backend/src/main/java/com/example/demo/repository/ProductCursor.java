@@ -0,0 +1,56 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.ProductListItem;
+import com.example.demo.exception.BusinessException;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Position of the last row of a keyset page: the sort key value and the id used as tie-breaker.
+ * Encoded as an opaque URL-safe token for clients.
+ */
+public record ProductCursor(String field, Sort.Direction direction, Object value, long id) {
+
+    /** Sortable product attributes and how to read them back from a cursor. */
+    public static final Map<String, Function<String, Object>> SORTABLE_FIELDS = Map.of(
+            "id", Long::valueOf,
+            "productCode", v -> v,
+            "productName", v -> v,
+            "category", v -> v,
+            "price", BigDecimal::new,
+            "stockQuantity", Integer::valueOf,
+            "status", v -> v,
+            "createdAt", LocalDateTime::parse,
+            "updatedAt", LocalDateTime::parse
+    );
+
+    public static ProductCursor after(ProductListItem last, Sort.Order order) {
+        return new ProductCursor(order.getProperty(), order.getDirection(), last.get(order.getProperty()), last.getId());
+    }
+
+    public String encode() {
+        String raw = field + "\n" + direction.name() + "\n" + id + "\n" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", 4);
+            Function<String, Object> parser = SORTABLE_FIELDS.get(parts[0]);
+            if (parts.length != 4 || parser == null) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new ProductCursor(parts[0], Sort.Direction.valueOf(parts[1]),
+                    parser.apply(parts[3]), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new BusinessException("カーソルが不正です");
+        }
+    }
+}
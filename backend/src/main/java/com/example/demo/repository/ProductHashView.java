@@ -0,0 +1,11 @@
+package com.example.demo.repository;
+
+/**
+ * Stored content hash of a product, see {@link com.example.demo.entity.Product#computeContentHash()}.
+ */
+public interface ProductHashView {
+
+    String getProductCode();
+
+    Long getContentHash();
+}
@@ -0,0 +1,13 @@
+package com.example.demo.repository;
+
+/**
+ * The searchable text of a product, as loaded into the keyword index.
+ */
+public interface ProductKeywordView {
+
+    Long getId();
+
+    String getProductCode();
+
+    String getProductName();
+}
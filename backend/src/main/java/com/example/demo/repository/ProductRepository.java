@@ -1,12 +1,57 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductRepositoryCustom {
 
     Optional<Product> findByProductCode(String productCode);
+
+    /** Overwrites the editable columns in a single statement. Returns the number of rows updated. */
+    @Modifying
+    @Query("UPDATE Product p SET p.productCode = :#{#product.productCode},"
+            + " p.productName = :#{#product.productName}, p.category = :#{#product.category},"
+            + " p.price = :#{#product.price}, p.stockQuantity = :#{#product.stockQuantity},"
+            + " p.status = :#{#product.status}, p.description = :#{#product.description},"
+            + " p.contentHash = :#{#product.computeContentHash()}, p.updatedAt = :updatedAt WHERE p.id = :id")
+    int updateFields(Long id, Product product, LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("DELETE FROM Product p WHERE p.id = :id")
+    int deleteByIdReturningCount(Long id);
+
+    /** Stored content hashes of the products that exist among the given codes. */
+    @Query("SELECT p.productCode AS productCode, p.contentHash AS contentHash"
+            + " FROM Product p WHERE p.productCode IN :productCodes")
+    List<ProductHashView> findContentHashesByProductCodeIn(Collection<String> productCodes);
+
+    List<Product> findByProductCodeIn(Collection<String> productCodes);
+
+    @Query("SELECT p.id FROM Product p WHERE p.productCode IN :productCodes")
+    List<Long> findIdsByProductCodeIn(Collection<String> productCodes);
+
+    @Query("SELECT p.id AS id, p.productCode AS productCode, p.productName AS productName"
+            + " FROM Product p WHERE p.id IN :ids")
+    List<ProductKeywordView> findKeywordViewsByIdIn(Collection<Long> ids);
+
+    @Query("SELECT p.id AS id, p.stockQuantity AS stockQuantity FROM Product p WHERE p.id IN :ids")
+    List<ProductStockView> findStockViewsByIdIn(Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.id AS id, p.productCode AS productCode, p.productName AS productName"
+            + " FROM Product p ORDER BY p.id")
+    Stream<ProductKeywordView> streamKeywordViews();
 }
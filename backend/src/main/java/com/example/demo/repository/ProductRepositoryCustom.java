@@ -0,0 +1,76 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.ProductFacets;
+import com.example.demo.dto.ProductListItem;
+import com.example.demo.dto.ProductSearchRequest;
+import com.example.demo.entity.Product;
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.stream.Stream;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Inserts or updates the given products keyed on {@code product_code} with batched
+     * {@code INSERT ... ON CONFLICT DO UPDATE} statements. Product codes must be unique within
+     * the batch. The content hash is stored as well, computed unless already set.
+     */
+    void upsertAll(Collection<Product> products);
+
+    /**
+     * Adds each delta to the product's stock quantity in one batch of atomic
+     * {@code stock_quantity = stock_quantity + ?} updates, in id order. A delta that would make
+     * the quantity negative or overflow it is not applied. Adjusted rows lose their content hash,
+     * so the next import writes them again.
+     *
+     * @return ids whose delta was not applied, either because the product does not exist or
+     * because its stock would have gone negative or past {@code Integer.MAX_VALUE}
+     */
+    Set<Long> addStock(SortedMap<Long, Integer> deltas);
+
+    /**
+     * Streams matching products through a JDBC cursor. Each entity is detached before it is
+     * handed out, so the persistence context does not grow with the result. Must be consumed
+     * inside a transaction and closed by the caller.
+     */
+    Stream<Product> streamAll(Specification<Product> spec, Sort sort);
+
+    /**
+     * Fetches one window of matching rows without issuing a count query. Only the given
+     * {@link ProductListItem#FIELDS} are selected, so unused columns never leave the database.
+     */
+    List<ProductListItem> findWindow(Specification<Product> spec, Sort sort, long offset, int limit,
+                                     Collection<String> fields);
+
+    /** Number of matching rows per category, largest first. */
+    Map<String, Long> countByCategory(Specification<Product> spec);
+
+    /** Smallest and largest id among matching rows, or empty when nothing matches. */
+    Optional<Range<Long>> findIdRange(Specification<Product> spec);
+
+    /**
+     * Counts matches per category, status and price bucket in one grouped query. Each facet is
+     * counted with all filters of {@code request} except its own; the keyword applies to all.
+     * Categories and statuses without matches are left out; every price bucket is returned.
+     *
+     * @param keywordMatchIds keyword already resolved to ids, or {@code null} to use {@code LIKE}
+     * @param priceBounds ascending bucket bounds, see {@code app.search.facets.price-bounds}
+     */
+    ProductFacets countFacets(ProductSearchRequest request, Collection<Long> keywordMatchIds,
+                              List<BigDecimal> priceBounds);
+
+    /**
+     * Row count estimated by the query planner for the given filters. Much cheaper than
+     * {@code COUNT(*)} on large tables, but only as accurate as the table statistics.
+     */
+    long estimateCount(ProductSearchRequest request);
+}
@@ -0,0 +1,342 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.ProductFacets;
+import com.example.demo.dto.ProductListItem;
+import com.example.demo.dto.ProductSearchRequest;
+import com.example.demo.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO products (
+                product_code, product_name, category, price,
+                stock_quantity, status, description, content_hash,
+                created_at, updated_at
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (product_code) DO UPDATE SET
+                product_name   = EXCLUDED.product_name,
+                category       = EXCLUDED.category,
+                price          = EXCLUDED.price,
+                stock_quantity = EXCLUDED.stock_quantity,
+                status         = EXCLUDED.status,
+                description    = EXCLUDED.description,
+                content_hash   = EXCLUDED.content_hash,
+                updated_at     = EXCLUDED.updated_at
+            """;
+
+    private static final String ADD_STOCK_SQL = """
+            UPDATE products
+               SET stock_quantity = stock_quantity + ?, content_hash = NULL, updated_at = ?
+             WHERE id = ? AND CAST(stock_quantity AS BIGINT) + ? BETWEEN 0 AND 2147483647
+            """;
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void upsertAll(Collection<Product> products) {
+        if (products.isEmpty()) return;
+
+        // Entity callbacks don't run for plain JDBC, so stamp the audit columns here
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, products, products.size(), (ps, product) -> {
+            ps.setString(1, product.getProductCode());
+            ps.setString(2, product.getProductName());
+            ps.setString(3, product.getCategory());
+            ps.setBigDecimal(4, product.getPrice());
+            ps.setInt(5, product.getStockQuantity());
+            ps.setString(6, product.getStatus());
+            ps.setString(7, product.getDescription());
+            ps.setLong(8, product.getContentHash() != null ? product.getContentHash() : product.computeContentHash());
+            ps.setTimestamp(9, now);
+            ps.setTimestamp(10, now);
+        });
+    }
+
+    @Override
+    public Set<Long> addStock(SortedMap<Long, Integer> deltas) {
+        if (deltas.isEmpty()) return Set.of();
+
+        List<Map.Entry<Long, Integer>> entries = List.copyOf(deltas.entrySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(ADD_STOCK_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setInt(1, entry.getValue());
+            ps.setTimestamp(2, now);
+            ps.setLong(3, entry.getKey());
+            ps.setInt(4, entry.getValue());
+        });
+
+        Set<Long> rejected = new HashSet<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (counts[0][i] == 0) {
+                rejected.add(entries.get(i).getKey());
+            }
+        }
+        return rejected;
+    }
+
+    @Override
+    public Stream<Product> streamAll(Specification<Product> spec, Sort sort) {
+        return entityManager.createQuery(buildQuery(spec, sort))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .peek(entityManager::detach);
+    }
+
+    @Override
+    public List<ProductListItem> findWindow(Specification<Product> spec, Sort sort, long offset, int limit,
+                                            Collection<String> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+        query.multiselect(fields.stream().<Selection<?>>map(field -> root.get(field).alias(field)).toList());
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        List<Tuple> rows = entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+        List<ProductListItem> items = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            ProductListItem item = new ProductListItem();
+            for (String field : fields) {
+                item.set(field, row.get(field));
+            }
+            items.add(item);
+        }
+        return items;
+    }
+
+    @Override
+    public Map<String, Long> countByCategory(Specification<Product> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+        Expression<String> category = root.get("category");
+        Expression<Long> count = cb.count(root);
+        query.multiselect(category, count);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.groupBy(category).orderBy(cb.desc(count), cb.asc(category));
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            counts.put(row.get(category), row.get(count));
+        }
+        return counts;
+    }
+
+    @Override
+    public Optional<Range<Long>> findIdRange(Specification<Product> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+        Expression<Long> id = root.get("id");
+        query.multiselect(cb.min(id), cb.max(id));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        Tuple row = entityManager.createQuery(query).getSingleResult();
+        Long min = row.get(0, Long.class);
+        return min == null ? Optional.empty() : Optional.of(Range.closed(min, row.get(1, Long.class)));
+    }
+
+    @Override
+    public long estimateCount(ProductSearchRequest request) {
+        StringBuilder sql = new StringBuilder("EXPLAIN (FORMAT JSON) SELECT 1 FROM products WHERE TRUE");
+        List<Object> args = new ArrayList<>();
+        if (StringUtils.hasText(request.getKeyword())) {
+            String kw = ProductSpecification.containsPattern(request.getKeyword());
+            sql.append(" AND (product_name LIKE ? ESCAPE '\\' OR product_code LIKE ? ESCAPE '\\')");
+            args.add(kw);
+            args.add(kw);
+        }
+        if (StringUtils.hasText(request.getCategory())) {
+            sql.append(" AND category = ?");
+            args.add(request.getCategory());
+        }
+        if (StringUtils.hasText(request.getStatus())) {
+            sql.append(" AND status = ?");
+            args.add(request.getStatus());
+        }
+        if (request.getPriceMin() != null) {
+            sql.append(" AND price >= ?");
+            args.add(request.getPriceMin());
+        }
+        if (request.getPriceMax() != null) {
+            sql.append(" AND price <= ?");
+            args.add(request.getPriceMax());
+        }
+
+        String plan = jdbcTemplate.queryForObject(sql.toString(), String.class, args.toArray());
+        Matcher matcher = PLAN_ROWS.matcher(plan != null ? plan : "");
+        if (!matcher.find()) {
+            throw new IllegalStateException("No row estimate in plan: " + plan);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    @Override
+    public ProductFacets countFacets(ProductSearchRequest request, Collection<Long> keywordMatchIds,
+                                     List<BigDecimal> priceBounds) {
+        SqlCondition category = SqlCondition.TRUE;
+        if (StringUtils.hasText(request.getCategory())) {
+            category = new SqlCondition("category = ?", request.getCategory());
+        }
+        SqlCondition status = SqlCondition.TRUE;
+        if (StringUtils.hasText(request.getStatus())) {
+            status = new SqlCondition("status = ?", request.getStatus());
+        }
+        List<String> priceSql = new ArrayList<>();
+        List<Object> priceArgs = new ArrayList<>();
+        if (request.getPriceMin() != null) {
+            priceSql.add("price >= ?");
+            priceArgs.add(request.getPriceMin());
+        }
+        if (request.getPriceMax() != null) {
+            priceSql.add("price <= ?");
+            priceArgs.add(request.getPriceMax());
+        }
+        SqlCondition price = priceSql.isEmpty()
+                ? SqlCondition.TRUE
+                : new SqlCondition(String.join(" AND ", priceSql), priceArgs.toArray());
+
+        // One scan; each facet's count applies every filter except its own
+        StringBuilder sql = new StringBuilder("SELECT GROUPING(category, status, bucket) AS grouping_set,"
+                + " category, status, bucket,");
+        List<Object> args = new ArrayList<>();
+        sql.append(" COUNT(*) FILTER (WHERE ").append(status.and(price, args)).append(") AS category_count,");
+        sql.append(" COUNT(*) FILTER (WHERE ").append(category.and(price, args)).append(") AS status_count,");
+        sql.append(" COUNT(*) FILTER (WHERE ").append(category.and(status, args)).append(") AS price_count");
+        sql.append(" FROM (SELECT category, status, price, ").append(priceBucket(priceBounds))
+                .append(" AS bucket FROM products WHERE TRUE");
+        if (StringUtils.hasText(request.getKeyword()) && keywordMatchIds != null) {
+            if (keywordMatchIds.isEmpty()) {
+                sql.append(" AND FALSE");
+            } else {
+                sql.append(" AND id IN (").append(String.join(",", Collections.nCopies(keywordMatchIds.size(), "?")))
+                        .append(")");
+                args.addAll(keywordMatchIds);
+            }
+        } else if (StringUtils.hasText(request.getKeyword())) {
+            String kw = ProductSpecification.containsPattern(request.getKeyword());
+            sql.append(" AND (product_name LIKE ? ESCAPE '\\' OR product_code LIKE ? ESCAPE '\\')");
+            args.add(kw);
+            args.add(kw);
+        }
+        sql.append(") p GROUP BY GROUPING SETS ((category), (status), (bucket))");
+
+        List<ProductFacets.ValueCount> categories = new ArrayList<>();
+        List<ProductFacets.ValueCount> statuses = new ArrayList<>();
+        long[] buckets = new long[priceBounds.size() + 1];
+        jdbcTemplate.query(sql.toString(), rs -> {
+            switch (rs.getInt("grouping_set")) {
+                case 0b011 -> categories.add(
+                        new ProductFacets.ValueCount(rs.getString("category"), rs.getLong("category_count")));
+                case 0b101 -> statuses.add(
+                        new ProductFacets.ValueCount(rs.getString("status"), rs.getLong("status_count")));
+                case 0b110 -> buckets[rs.getInt("bucket")] = rs.getLong("price_count");
+                default -> throw new IllegalStateException("Unexpected grouping set " + rs.getInt("grouping_set"));
+            }
+        }, args.toArray());
+
+        List<ProductFacets.RangeCount> prices = new ArrayList<>(buckets.length);
+        for (int i = 0; i < buckets.length; i++) {
+            prices.add(new ProductFacets.RangeCount(
+                    i > 0 ? priceBounds.get(i - 1) : null,
+                    i < priceBounds.size() ? priceBounds.get(i) : null,
+                    buckets[i]));
+        }
+        return ProductFacets.builder().category(categories).status(statuses).price(prices).build();
+    }
+
+    /** Index of the price bucket, 0 below the first bound up to {@code bounds.size()} above the last. */
+    private static String priceBucket(List<BigDecimal> bounds) {
+        if (bounds.isEmpty()) return "0";
+        StringBuilder sql = new StringBuilder("CASE");
+        for (int i = 0; i < bounds.size(); i++) {
+            // Bounds are numbers from configuration, so they can be inlined
+            sql.append(" WHEN price < ").append(bounds.get(i).toPlainString()).append(" THEN ").append(i);
+        }
+        return sql.append(" ELSE ").append(bounds.size()).append(" END").toString();
+    }
+
+    private CriteriaQuery<Product> buildQuery(Specification<Product> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> query = cb.createQuery(Product.class);
+        Root<Product> root = query.from(Product.class);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return query;
+    }
+
+    /** SQL predicate fragment with its bind values, in placeholder order. */
+    private record SqlCondition(String sql, Object... args) {
+
+        static final SqlCondition TRUE = new SqlCondition("TRUE");
+
+        /** Returns this AND {@code other}, adding the bind values of both to {@code target}. */
+        String and(SqlCondition other, List<Object> target) {
+            target.addAll(Arrays.asList(args));
+            target.addAll(Arrays.asList(other.args));
+            return sql + " AND " + other.sql;
+        }
+    }
+}
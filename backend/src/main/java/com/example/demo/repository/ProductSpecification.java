@@ -2,24 +2,41 @@ package com.example.demo.repository;
 
 import com.example.demo.dto.ProductSearchRequest;
 import com.example.demo.entity.Product;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public class ProductSpecification {
 
+    static final char LIKE_ESCAPE = '\\';
+
     public static Specification<Product> search(ProductSearchRequest req) {
+        return search(req, null);
+    }
+
+    /**
+     * Same as {@link #search(ProductSearchRequest)}, but with the keyword already resolved to
+     * matching ids (e.g. by the keyword index). {@code null} ids fall back to {@code LIKE}.
+     */
+    public static Specification<Product> search(ProductSearchRequest req, Collection<Long> keywordMatchIds) {
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
-            if (StringUtils.hasText(req.getKeyword())) {
-                String kw = "%" + req.getKeyword() + "%";
+            if (StringUtils.hasText(req.getKeyword()) && keywordMatchIds != null) {
+                predicates.add(keywordMatchIds.isEmpty()
+                        ? cb.disjunction()
+                        : root.get("id").in(keywordMatchIds));
+            } else if (StringUtils.hasText(req.getKeyword())) {
+                // Wildcards in the keyword match literally, as they do in the keyword index
+                String kw = containsPattern(req.getKeyword());
                 predicates.add(cb.or(
-                        cb.like(root.get("productName"), kw),
-                        cb.like(root.get("productCode"), kw)
+                        cb.like(root.get("productName"), kw, LIKE_ESCAPE),
+                        cb.like(root.get("productCode"), kw, LIKE_ESCAPE)
                 ));
             }
             if (StringUtils.hasText(req.getCategory())) {
@@ -38,4 +55,48 @@ public class ProductSpecification {
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    /** {@code LIKE} pattern, escaped with {@link #LIKE_ESCAPE}, for values containing {@code keyword}. */
+    static String containsPattern(String keyword) {
+        StringBuilder pattern = new StringBuilder(keyword.length() + 8).append('%');
+        for (int i = 0; i < keyword.length(); i++) {
+            char c = keyword.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                pattern.append(LIKE_ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+
+    /**
+     * Rows strictly after the cursor position in (sort key, id) order.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public static Specification<Product> seek(ProductCursor cursor) {
+        return (root, query, cb) -> {
+            boolean asc = cursor.direction().isAscending();
+            Expression<Long> id = root.get("id");
+            Predicate idAfter = asc ? cb.greaterThan(id, cursor.id()) : cb.lessThan(id, cursor.id());
+            if ("id".equals(cursor.field())) {
+                return idAfter;
+            }
+
+            Expression<Comparable> key = root.get(cursor.field());
+            Comparable value = (Comparable) cursor.value();
+            return cb.or(
+                    asc ? cb.greaterThan(key, value) : cb.lessThan(key, value),
+                    cb.and(cb.equal(key, value), idAfter)
+            );
+        };
+    }
+
+    public static Specification<Product> hasCategory(String category) {
+        return (root, query, cb) -> cb.equal(root.get("category"), category);
+    }
+
+    /** Ids from {@code from} to {@code to}, both inclusive. */
+    public static Specification<Product> idBetween(long from, long to) {
+        return (root, query, cb) -> cb.between(root.get("id"), from, to);
+    }
 }
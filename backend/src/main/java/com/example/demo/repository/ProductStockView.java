@@ -0,0 +1,11 @@
+package com.example.demo.repository;
+
+/**
+ * Current stock quantity of a product.
+ */
+public interface ProductStockView {
+
+    Long getId();
+
+    Integer getStockQuantity();
+}
@@ -0,0 +1,207 @@
+package com.example.demo.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted bigram index answering substring queries over a few short text fields per document.
+ * <p>
+ * Grams are taken from a length-preserving folded form of the text (lower case, half-width ASCII,
+ * hiragana for katakana), so any substring of a field shares all of its grams with the field.
+ * Candidates from the posting intersection are then verified against the original field values
+ * with a case-sensitive {@code contains}, giving the same matches as {@code LIKE '%kw%'}.
+ */
+public class NgramIndex {
+
+    private static final int GRAM = 2;
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, String[]> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Adds or replaces the document with the given id. */
+    public void put(long id, String... fields) {
+        lock.writeLock().lock();
+        try {
+            String[] copy = fields.clone();
+            String[] previous = documents.put(id, copy);
+            if (previous == null) {
+                for (String gram : grams(copy)) {
+                    postings.computeIfAbsent(gram, g -> new Postings()).add(id);
+                }
+                return;
+            }
+            if (Arrays.equals(previous, copy)) return;
+
+            // Only grams that actually changed are touched; edits in the middle of long
+            // posting lists are array copies, which add up when many documents are re-put
+            Set<String> oldGrams = grams(previous);
+            Set<String> newGrams = grams(copy);
+            for (String gram : oldGrams) {
+                if (!newGrams.contains(gram)) removePosting(gram, id);
+            }
+            for (String gram : newGrams) {
+                if (!oldGrams.contains(gram)) postings.computeIfAbsent(gram, g -> new Postings()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of documents having a field that contains {@code keyword}, in ascending order.
+     * Empty when the keyword is too short to be answered from the index or when more than
+     * {@code maxResults} documents match.
+     */
+    public Optional<List<Long>> search(String keyword, int maxResults) {
+        if (keyword == null || keyword.length() < GRAM) {
+            return Optional.empty();
+        }
+        Set<String> keywordGrams = grams(new String[]{keyword});
+
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>(keywordGrams.size());
+            for (String gram : keywordGrams) {
+                Postings list = postings.get(gram);
+                if (list == null) {
+                    return Optional.of(List.of());
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(p -> p.size));
+
+            Postings smallest = lists.get(0);
+            List<Long> result = new ArrayList<>();
+            candidates:
+            for (int i = 0; i < smallest.size; i++) {
+                long id = smallest.ids[i];
+                for (int j = 1; j < lists.size(); j++) {
+                    if (!lists.get(j).contains(id)) continue candidates;
+                }
+                if (matches(documents.get(id), keyword)) {
+                    if (result.size() == maxResults) {
+                        return Optional.empty();
+                    }
+                    result.add(id);
+                }
+            }
+            return Optional.of(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(long id) {
+        String[] previous = documents.remove(id);
+        if (previous == null) return;
+        for (String gram : grams(previous)) {
+            removePosting(gram, id);
+        }
+    }
+
+    private void removePosting(String gram, long id) {
+        Postings list = postings.get(gram);
+        if (list != null && list.remove(id) && list.size == 0) {
+            postings.remove(gram);
+        }
+    }
+
+    private static boolean matches(String[] fields, String keyword) {
+        for (String field : fields) {
+            if (field != null && field.contains(keyword)) return true;
+        }
+        return false;
+    }
+
+    private static Set<String> grams(String[] fields) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String field : fields) {
+            if (field == null || field.length() < GRAM) continue;
+            String folded = fold(field);
+            for (int i = 0; i + GRAM <= folded.length(); i++) {
+                grams.add(folded.substring(i, i + GRAM));
+            }
+        }
+        return grams;
+    }
+
+    static String fold(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            char c = chars[i];
+            if (c >= '！' && c <= '～') {
+                c = (char) (c - 0xFEE0);           // full-width ASCII
+            } else if (c >= 'ァ' && c <= 'ヶ') {
+                c = (char) (c - 0x60);             // katakana -> hiragana
+            }
+            chars[i] = Character.toLowerCase(c);
+        }
+        return new String(chars);
+    }
+
+    /** Sorted, growable id list. Appends are O(1) when ids arrive in ascending order. */
+    private static class Postings {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int pos = Arrays.binarySearch(ids, 0, size, id);
+                if (pos >= 0) return;
+                insertAt(-pos - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        boolean remove(long id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) return false;
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private void insertAt(int pos, long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+    }
+}
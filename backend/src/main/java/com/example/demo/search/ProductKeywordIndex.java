@@ -0,0 +1,133 @@
+package com.example.demo.search;
+
+import com.example.demo.config.SearchProperties;
+import com.example.demo.event.ProductChangedEvent;
+import com.example.demo.repository.ProductKeywordView;
+import com.example.demo.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * In-memory n-gram index over product name and code. Built in the background at startup and
+ * kept current from {@link ProductChangedEvent}s after each commit. Until the first build
+ * finishes, {@link #lookup(String)} returns empty and callers fall back to SQL.
+ */
+@Slf4j
+@Component
+public class ProductKeywordIndex {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SearchProperties.KeywordIndex properties;
+
+    private final Object buildLock = new Object();
+    private volatile NgramIndex index;
+    /** Ids changed while a build is running, refreshed once it is done; {@code null} when no build runs. */
+    private Set<Long> changedDuringBuild = new HashSet<>();
+
+    public ProductKeywordIndex(ProductRepository productRepository, TransactionTemplate transactionTemplate,
+                               SearchProperties searchProperties) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = searchProperties.getKeywordIndex();
+    }
+
+    /**
+     * Ids of products whose name or code contains the keyword, or empty when the index cannot
+     * answer (not built yet, keyword too short, or too many matches).
+     */
+    public Optional<List<Long>> lookup(String keyword) {
+        NgramIndex current = index;
+        if (current == null || keyword == null) {
+            return Optional.empty();
+        }
+        return current.search(keyword, properties.getMaxIds());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!properties.isEnabled()) return;
+        Thread.ofVirtual().name("keyword-index-build").start(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Keyword index build failed; keyword searches use SQL", e);
+            }
+        });
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        NgramIndex built = new NgramIndex();
+        synchronized (buildLock) {
+            changedDuringBuild = new HashSet<>();
+        }
+
+        boolean complete = false;
+        try {
+            transactionTemplate.execute(status -> {
+                try (Stream<ProductKeywordView> views = productRepository.streamKeywordViews()) {
+                    views.forEach(v -> built.put(v.getId(), v.getProductName(), v.getProductCode()));
+                }
+                return null;
+            });
+            complete = true;
+        } finally {
+            Set<Long> pending;
+            synchronized (buildLock) {
+                pending = changedDuringBuild;
+                changedDuringBuild = null;
+                if (complete) {
+                    index = built;
+                }
+            }
+            // Rows written while the build was streaming may have been read before the change.
+            // After a failed build this brings the previous index, if any, up to date instead.
+            refresh(List.copyOf(pending));
+        }
+        log.info("Keyword index built: {} products in {} ms", built.size(), System.currentTimeMillis() - start);
+    }
+
+    // Before SearchResultCache invalidates, so no search under the new version resolves the old index
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!properties.isEnabled()) return;
+        synchronized (buildLock) {
+            if (changedDuringBuild != null) {
+                changedDuringBuild.addAll(event.productIds());
+                return;
+            }
+        }
+        refresh(event.productIds());
+    }
+
+    private void refresh(List<Long> ids) {
+        NgramIndex current = index;
+        if (current == null || ids.isEmpty()) return;
+
+        for (int from = 0; from < ids.size(); from += LOAD_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + LOAD_BATCH_SIZE, ids.size()));
+            Set<Long> missing = new HashSet<>(batch);
+            for (ProductKeywordView v : productRepository.findKeywordViewsByIdIn(batch)) {
+                current.put(v.getId(), v.getProductName(), v.getProductCode());
+                missing.remove(v.getId());
+            }
+            missing.forEach(current::remove);
+        }
+    }
+}
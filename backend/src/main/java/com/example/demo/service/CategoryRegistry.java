@@ -0,0 +1,67 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Category;
+import com.example.demo.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Cached view of the category master. Loaded on first use and kept until
+ * {@link #invalidate()} is called after the categories table changes.
+ */
+@Service
+@RequiredArgsConstructor
+public class CategoryRegistry {
+
+    private final CategoryRepository categoryRepository;
+
+    private volatile Snapshot snapshot;
+
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                snapshot = load();
+            }
+            return snapshot;
+        }
+    }
+
+    public List<Category> getCategories() {
+        return getSnapshot().categories();
+    }
+
+    public boolean isValidName(String categoryName) {
+        return getSnapshot().names().contains(categoryName);
+    }
+
+    public synchronized void invalidate() {
+        snapshot = null;
+    }
+
+    private Snapshot load() {
+        List<Category> categories = List.copyOf(categoryRepository.findAllByOrderBySortOrderAsc());
+        Set<String> names = categories.stream()
+                .map(Category::getCategoryName)
+                .collect(Collectors.toUnmodifiableSet());
+
+        // Content-based version so every instance hands out the same ETag for the same data
+        String content = categories.stream()
+                .map(c -> c.getId() + "\t" + c.getCategoryCode() + "\t" + c.getCategoryName() + "\t" + c.getSortOrder())
+                .collect(Collectors.joining("\n"));
+        String version = DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8));
+        return new Snapshot(categories, names, version);
+    }
+
+    public record Snapshot(List<Category> categories, Set<String> names, String version) {
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.demo.service;
+
+import com.example.demo.config.FeedProperties;
+import com.example.demo.event.ProductChange;
+import com.example.demo.event.ProductChangeFeed;
+import com.example.demo.exception.BusinessException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams the product change feed to SSE subscribers. Each subscriber is served by its own
+ * virtual thread that parks in the feed between changes, so an idle subscriber costs a parked
+ * virtual thread and an open async request, not a platform thread.
+ *
+ * <p>Event ids carry this process's start time as well as the feed sequence. A client resuming
+ * with an id from before a restart, or one too old for the buffer, first receives a
+ * {@code reset} event telling it to reload everything.
+ */
+@Slf4j
+@Service
+public class ChangeFeedService {
+
+    private static final int SEND_BATCH = 100;
+
+    private final ProductChangeFeed feed;
+    private final Duration heartbeat;
+    private final Duration timeout;
+    private final int maxSubscribers;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    public ChangeFeedService(ProductChangeFeed feed, FeedProperties feedProperties, MeterRegistry meterRegistry) {
+        this.feed = feed;
+        this.heartbeat = feedProperties.getHeartbeat();
+        this.timeout = feedProperties.getTimeout();
+        this.maxSubscribers = feedProperties.getMaxSubscribers();
+        Gauge.builder("feed.subscribers", subscribers, AtomicInteger::get)
+                .description("Open product change streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of changes committed after {@code lastEventId}, or after now when it is
+     * absent.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            throw new BusinessException("変更通知の接続数が上限に達しています");
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Thread streamer = Thread.ofVirtual().name("change-feed").unstarted(() -> {
+            try {
+                stream(emitter, lastEventId);
+            } finally {
+                subscribers.decrementAndGet();
+            }
+        });
+        emitter.onCompletion(streamer::interrupt);
+        emitter.onTimeout(streamer::interrupt);
+        emitter.onError(e -> streamer.interrupt());
+        streamer.start();
+        return emitter;
+    }
+
+    private void stream(SseEmitter emitter, String lastEventId) {
+        try {
+            long cursor = resumePosition(lastEventId);
+            if (cursor < 0) {
+                cursor = sendReset(emitter);
+            }
+            while (!Thread.currentThread().isInterrupted()) {
+                ProductChangeFeed.Slice slice = feed.read(cursor, SEND_BATCH);
+                if (slice.truncated()) {
+                    // Fell behind by more than the buffer holds
+                    cursor = sendReset(emitter);
+                } else if (!slice.changes().isEmpty()) {
+                    for (ProductChange change : slice.changes()) {
+                        emitter.send(SseEmitter.event()
+                                .id(eventId(change.sequence()))
+                                .name("change")
+                                .data(change, MediaType.APPLICATION_JSON));
+                        cursor = change.sequence();
+                    }
+                } else if (!feed.awaitAfter(cursor, heartbeat)) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        } catch (InterruptedException e) {
+            // The emitter completed, timed out or failed
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the container reports it to the emitter and ends the request
+            log.debug("Change feed subscriber disconnected: {}", e.getMessage());
+        }
+    }
+
+    /** Position to stream from, or -1 when the client must reload first. */
+    private long resumePosition(String lastEventId) {
+        long latest = feed.latestSequence();
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return latest;
+        }
+        int separator = lastEventId.indexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            long sequence = Long.parseLong(lastEventId.substring(separator + 1));
+            return sequence <= latest ? sequence : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private long sendReset(SseEmitter emitter) throws IOException {
+        long latest = feed.latestSequence();
+        emitter.send(SseEmitter.event()
+                .id(eventId(latest))
+                .name("reset")
+                .data(Map.of("reason", "history unavailable"), MediaType.APPLICATION_JSON));
+        return latest;
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.BusinessException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Streaming reader for UTF-8 CSV/TSV files (RFC 4180 quoting, CRLF or LF line ends, optional BOM).
+ * The file is decoded through fixed NIO buffers and fields are collected in one reused builder,
+ * so the only per-cell allocation is the field string itself. Records are handed over as
+ * {@link XlsxRow}s with the same 0-based numbering as sheet rows; the {@code XlsxRow} is reused.
+ * The {@code '} that {@link DelimitedWriter} puts in front of formula-like text is removed again.
+ */
+public final class DelimitedReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private DelimitedReader() {
+    }
+
+    public static void read(Path file, char delimiter, Consumer<XlsxRow> rowHandler) throws IOException {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+        Parser parser = new Parser(delimiter, rowHandler);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            boolean eof = false;
+            while (!eof) {
+                eof = channel.read(bytes) < 0;
+                bytes.flip();
+                CoderResult result;
+                do {
+                    result = decoder.decode(bytes, chars, eof);
+                    if (result.isError()) {
+                        throw new BusinessException("ファイルはUTF-8で保存してください");
+                    }
+                    chars.flip();
+                    parser.accept(chars);
+                    chars.clear();
+                } while (result.isOverflow());
+                bytes.compact();
+            }
+            decoder.flush(chars);
+            chars.flip();
+            parser.accept(chars);
+            parser.finish();
+        }
+    }
+
+    private static class Parser {
+
+        private final char delimiter;
+        private final Consumer<XlsxRow> rowHandler;
+        private final XlsxRow row = new XlsxRow();
+        private final StringBuilder field = new StringBuilder();
+
+        private int rowNum = -1;
+        private int cellIndex;
+        private boolean atStart = true;
+        private boolean inQuotes;
+        private boolean quoteInQuotes;
+        private boolean afterCarriageReturn;
+        private boolean rowHasContent;
+
+        Parser(char delimiter, Consumer<XlsxRow> rowHandler) {
+            this.delimiter = delimiter;
+            this.rowHandler = rowHandler;
+        }
+
+        void accept(CharBuffer chars) {
+            while (chars.hasRemaining()) {
+                char c = chars.get();
+                if (atStart) {
+                    atStart = false;
+                    if (c == '\uFEFF') continue;
+                }
+                if (afterCarriageReturn) {
+                    afterCarriageReturn = false;
+                    if (c == '\n') continue;
+                }
+                if (inQuotes) {
+                    if (quoteInQuotes) {
+                        quoteInQuotes = false;
+                        if (c == '"') {
+                            field.append('"');
+                            continue;
+                        }
+                        // Closing quote; fall through to handle c as unquoted
+                        inQuotes = false;
+                    } else if (c == '"') {
+                        quoteInQuotes = true;
+                        continue;
+                    } else {
+                        field.append(c);
+                        continue;
+                    }
+                }
+                if (c == delimiter) {
+                    endField();
+                } else if (c == '\n' || c == '\r') {
+                    afterCarriageReturn = c == '\r';
+                    endRow();
+                } else if (c == '"' && field.isEmpty()) {
+                    inQuotes = true;
+                    rowHasContent = true;
+                } else {
+                    field.append(c);
+                    rowHasContent = true;
+                }
+            }
+        }
+
+        void finish() {
+            if (inQuotes && quoteInQuotes) {
+                inQuotes = false;
+            }
+            if (rowHasContent || cellIndex > 0 || !field.isEmpty()) {
+                endRow();
+            }
+        }
+
+        private void endField() {
+            if (cellIndex == 0) {
+                startRow();
+            }
+            if (!field.isEmpty()) {
+                if (field.charAt(0) == '\'' && DelimitedWriter.isFormulaGuarded(field)) {
+                    field.deleteCharAt(0);
+                }
+                row.set(cellIndex, field.toString(), false);
+                field.setLength(0);
+            }
+            cellIndex++;
+            rowHasContent = true;
+        }
+
+        private void endRow() {
+            // Blank lines are skipped rather than reported as empty records
+            if (!rowHasContent && cellIndex == 0 && field.isEmpty()) return;
+            endField();
+            rowHandler.accept(row);
+            cellIndex = 0;
+            rowHasContent = false;
+        }
+
+        private void startRow() {
+            row.reset(++rowNum);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.demo.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Streams CSV/TSV records as UTF-8 straight into a byte buffer. Text is encoded char by char and
+ * numbers digit by digit, so writing a record allocates nothing beyond {@link BigDecimal}'s
+ * plain string. Fields are quoted only when they contain the delimiter, a quote or a line break.
+ *
+ * <p>The files are meant to be opened in Excel, which runs text cells starting with {@code =},
+ * {@code +}, {@code -}, {@code @}, tab or CR as formulas. Such text is written with a leading
+ * {@code '} (see {@link #isFormulaGuarded}), so that user-entered names and codes stay text.
+ */
+public class DelimitedWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte[] BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final char delimiter;
+    private final byte[] digits = new byte[20];
+    private boolean rowStarted;
+
+    public DelimitedWriter(OutputStream out, char delimiter) {
+        this.channel = Channels.newChannel(out);
+        this.delimiter = delimiter;
+    }
+
+    /** Writes the UTF-8 byte order mark Excel needs to open the file as UTF-8. */
+    public void writeBom() throws IOException {
+        ensure(BOM.length);
+        buffer.put(BOM);
+    }
+
+    public void field(String value) throws IOException {
+        text(value, true);
+    }
+
+    public void field(long value) throws IOException {
+        separate();
+        ensure(20);
+        if (value < 0) {
+            buffer.put((byte) '-');
+            if (value == Long.MIN_VALUE) {
+                encode("9223372036854775808");
+                return;
+            }
+            value = -value;
+        }
+        int pos = digits.length;
+        do {
+            digits[--pos] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        buffer.put(digits, pos, digits.length - pos);
+    }
+
+    public void field(BigDecimal value) throws IOException {
+        text(value != null ? value.toPlainString() : null, false);
+    }
+
+    /**
+     * Whether the writer adds a {@code '} in front of this text: it starts with a character Excel
+     * reads as the start of a formula, possibly after {@code '}s that are part of the value.
+     * Guarding values that already start with {@code '} as well keeps the prefix reversible;
+     * {@link DelimitedReader} drops one {@code '} from every such field.
+     */
+    static boolean isFormulaGuarded(CharSequence value) {
+        int i = 0;
+        while (i < value.length() && value.charAt(i) == '\'') {
+            i++;
+        }
+        if (i == value.length()) return false;
+        char c = value.charAt(i);
+        return c == '=' || c == '+' || c == '-' || c == '@' || c == '\t' || c == '\r';
+    }
+
+    /** Ends the current record with CRLF, as RFC 4180 and Excel expect. */
+    public void endRow() throws IOException {
+        ensure(2);
+        buffer.put((byte) '\r').put((byte) '\n');
+        rowStarted = false;
+    }
+
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /** Flushes pending bytes. The underlying stream is left open for the caller to close. */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    private void text(String value, boolean guardFormula) throws IOException {
+        separate();
+        if (value == null || value.isEmpty()) return;
+        boolean guard = guardFormula && isFormulaGuarded(value);
+        if (!needsQuotes(value)) {
+            if (guard) {
+                ensure(1);
+                buffer.put((byte) '\'');
+            }
+            encode(value);
+            return;
+        }
+        ensure(2);
+        buffer.put((byte) '"');
+        if (guard) {
+            buffer.put((byte) '\'');
+        }
+        for (int i = 0; i < value.length(); ) {
+            if (value.charAt(i) == '"') {
+                ensure(1);
+                buffer.put((byte) '"');
+            }
+            i += encode(value, i);
+        }
+        ensure(1);
+        buffer.put((byte) '"');
+    }
+
+    private void separate() throws IOException {
+        if (rowStarted) {
+            ensure(1);
+            buffer.put((byte) delimiter);
+        }
+        rowStarted = true;
+    }
+
+    private boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == delimiter || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+
+    private void encode(String value) throws IOException {
+        for (int i = 0; i < value.length(); ) {
+            i += encode(value, i);
+        }
+    }
+
+    /** Encodes the character at {@code i} and returns how many chars it took (2 for a surrogate pair). */
+    private int encode(String value, int i) throws IOException {
+        ensure(4);
+        char c = value.charAt(i);
+        if (c < 0x80) {
+            buffer.put((byte) c);
+        } else if (c < 0x800) {
+            buffer.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(i + 1))) {
+            int cp = Character.toCodePoint(c, value.charAt(i + 1));
+            buffer.put((byte) (0xF0 | cp >> 18))
+                    .put((byte) (0x80 | cp >> 12 & 0x3F))
+                    .put((byte) (0x80 | cp >> 6 & 0x3F))
+                    .put((byte) (0x80 | cp & 0x3F));
+            return 2;
+        } else if (Character.isSurrogate(c)) {
+            buffer.put((byte) '?');
+        } else {
+            buffer.put((byte) (0xE0 | c >> 12))
+                    .put((byte) (0x80 | c >> 6 & 0x3F))
+                    .put((byte) (0x80 | c & 0x3F));
+        }
+        return 1;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+}
@@ -1,14 +1,40 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.ExportSplit;
+import com.example.demo.dto.FileFormat;
 import com.example.demo.dto.ImportResult;
 import com.example.demo.dto.ProductSearchRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.OutputStream;
+import java.nio.file.Path;
 
 public interface ExcelService {
 
     void exportExcel(ProductSearchRequest request, OutputStream outputStream);
 
+    /** Exports matching products as {@code format}; CSV and TSV are UTF-8 with a BOM. */
+    void export(ProductSearchRequest request, FileFormat format, OutputStream outputStream);
+
+    /**
+     * Exports matching products as a ZIP of {@code format} files, one per part of {@code split}.
+     * Parts are generated concurrently, each with its own cursor, and added as they finish.
+     */
+    void exportZip(ProductSearchRequest request, FileFormat format, ExportSplit split, OutputStream outputStream);
+
     ImportResult importExcel(MultipartFile file);
+
+    /**
+     * Imports an uploaded file. Rows identical to the stored product are not written; with
+     * {@code dryRun} nothing is written and the result lists the changes instead.
+     */
+    ImportResult importFile(MultipartFile file, FileFormat format, boolean dryRun);
+
+    /**
+     * Imports an .xlsx file from disk, reporting counts to {@code progress} as rows are read.
+     * Each chunk commits separately unless a transaction is already active.
+     */
+    ImportResult importExcel(Path file, ImportProgress progress);
+
+    ImportResult importFile(Path file, FileFormat format, ImportProgress progress, boolean dryRun);
 }
@@ -1,30 +1,67 @@
 package com.example.demo.service;
 
-import com.example.demo.dto.ImportError;
+import com.example.demo.config.ExportProperties;
+import com.example.demo.config.ImportProperties;
+import com.example.demo.dto.ExportSplit;
+import com.example.demo.dto.FileFormat;
+import com.example.demo.dto.ImportChange;
 import com.example.demo.dto.ImportResult;
 import com.example.demo.dto.ProductSearchRequest;
 import com.example.demo.entity.Product;
-import com.example.demo.repository.CategoryRepository;
+import com.example.demo.event.ProductChangedEvent;
+import com.example.demo.metrics.ExcelMetrics;
+import com.example.demo.repository.ProductHashView;
 import com.example.demo.repository.ProductRepository;
 import com.example.demo.repository.ProductSpecification;
+import com.example.demo.search.ProductKeywordIndex;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
-import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.hibernate.Session;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.StringUtils;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
-import java.math.BigDecimal;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 @Service
 @RequiredArgsConstructor
@@ -33,18 +70,157 @@ public class ExcelServiceImpl implements ExcelService {
     private static final String[] HEADERS = {
             "商品コード", "商品名", "カテゴリ", "単価", "在庫数量", "ステータス", "説明"
     };
-    private static final Set<String> VALID_STATUSES = Set.of("ACTIVE", "INACTIVE", "DISCONTINUED");
+    private static final int PART_BUFFER_SIZE = 64 * 1024;
+    private static final Pattern ENTRY_NAME_UNSAFE = Pattern.compile("[\\\\/:*?\"<>|\\s]");
 
     private final ProductRepository productRepository;
-    private final CategoryRepository categoryRepository;
+    private final CategoryRegistry categoryRegistry;
+    private final ImportProperties importProperties;
+    private final ExportProperties exportProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductKeywordIndex keywordIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExcelMetrics excelMetrics;
+    private final Semaphore exportPartPermits;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Override
     @Transactional(readOnly = true)
     public void exportExcel(ProductSearchRequest request, OutputStream outputStream) {
-        List<Product> products = productRepository.findAll(
-                ProductSpecification.search(request),
-                Sort.by(Sort.Direction.ASC, "id"));
+        Timer.Sample sample = excelMetrics.start();
+        String outcome = "failure";
+        try (Stream<Product> products = streamProducts(request)) {
+            CountingOutputStream counted = new CountingOutputStream(outputStream);
+            long rows = writeXlsx(products, counted);
+            excelMetrics.exported(rows, counted.getCount());
+            outcome = "success";
+        } catch (IOException e) {
+            throw new RuntimeException("Excel export failed", e);
+        } finally {
+            excelMetrics.exportCompleted(sample, FileFormat.XLSX, outcome);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void export(ProductSearchRequest request, FileFormat format, OutputStream outputStream) {
+        if (format == FileFormat.XLSX) {
+            exportExcel(request, outputStream);
+            return;
+        }
+
+        Timer.Sample sample = excelMetrics.start();
+        String outcome = "failure";
+        CountingOutputStream counted = new CountingOutputStream(outputStream);
+        try (Stream<Product> products = streamProducts(request)) {
+            long rows = writeDelimited(products, format, counted);
+            excelMetrics.exported(rows, counted.getCount());
+            outcome = "success";
+        } catch (IOException e) {
+            throw new RuntimeException(format + " export failed", e);
+        } finally {
+            excelMetrics.exportCompleted(sample, format, outcome);
+        }
+    }
 
+    @Override
+    public void exportZip(ProductSearchRequest request, FileFormat format, ExportSplit split,
+                          OutputStream outputStream) {
+        Specification<Product> filter = searchSpecification(request);
+        List<ExportPartition> partitions = partition(filter, split);
+        Timer.Sample sample = excelMetrics.start();
+        String outcome = "failure";
+        CountingOutputStream counted = new CountingOutputStream(outputStream);
+        List<Future<ExportPart>> futures = new ArrayList<>(partitions.size());
+        Set<Session> rendering = ConcurrentHashMap.newKeySet();
+        int threads = Math.max(Math.min(exportProperties.getParallelism(), partitions.size()), 1);
+        try {
+            try (ExecutorService workers = Executors.newFixedThreadPool(
+                    threads, Thread.ofPlatform().name("export-part-", 0).factory())) {
+                CompletionService<ExportPart> completion = new ExecutorCompletionService<>(workers);
+                for (ExportPartition partition : partitions) {
+                    futures.add(completion.submit(() -> renderPart(filter, partition, format, rendering)));
+                }
+                try {
+                    long rows = writeZip(completion, partitions.size(), format, counted);
+                    excelMetrics.exported(rows, counted.getCount());
+                    outcome = "success";
+                } finally {
+                    // After a failure, parts not started yet are skipped. Running ones are interrupted,
+                    // and their queries cancelled in case they are blocked in the driver.
+                    workers.shutdownNow();
+                    rendering.forEach(ExcelServiceImpl::cancelQuietly);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(format + " export failed", e);
+        } finally {
+            futures.forEach(future -> deleteQuietly(finishedPart(future)));
+            excelMetrics.exportCompleted(sample, format, outcome);
+        }
+    }
+
+    @Override
+    @Transactional
+    public ImportResult importExcel(MultipartFile file) {
+        return importFile(file, FileFormat.XLSX, false);
+    }
+
+    @Override
+    @Transactional
+    public ImportResult importFile(MultipartFile file, FileFormat format, boolean dryRun) {
+        Path tempFile = null;
+        try {
+            // Parse from disk so the reader can stream the file instead of buffering the whole upload
+            tempFile = Files.createTempFile("product-import-", "." + format.getExtension());
+            file.transferTo(tempFile);
+            return importFile(tempFile, format, new ImportProgress(importProperties.getMaxErrors()), dryRun);
+        } catch (IOException e) {
+            throw new RuntimeException("Excel import failed", e);
+        } finally {
+            deleteQuietly(tempFile);
+        }
+    }
+
+    @Override
+    public ImportResult importExcel(Path file, ImportProgress progress) {
+        return importFile(file, FileFormat.XLSX, progress, false);
+    }
+
+    @Override
+    public ImportResult importFile(Path file, FileFormat format, ImportProgress progress, boolean dryRun) {
+        ProductRowValidator validator = new ProductRowValidator(categoryRegistry.getSnapshot().names());
+        ImportPipeline pipeline = new ImportPipeline(validator, importProperties.getPipeline());
+        ImportContext context = new ImportContext(progress, dryRun);
+        Timer.Sample sample = excelMetrics.start();
+        String outcome = "failure";
+
+        try {
+            pipeline.run(file, format, progress, context::processBatch);
+            context.flush();
+            outcome = "success";
+        } catch (IOException e) {
+            throw new RuntimeException("Excel import failed", e);
+        } finally {
+            excelMetrics.importCompleted(sample, format, outcome);
+        }
+
+        return progress.toResult(dryRun);
+    }
+
+    private Stream<Product> streamProducts(ProductSearchRequest request) {
+        return productRepository.streamAll(searchSpecification(request), Sort.by(Sort.Direction.ASC, "id"));
+    }
+
+    private Specification<Product> searchSpecification(ProductSearchRequest request) {
+        return ProductSpecification.search(request, keywordIndex.lookup(request.getKeyword()).orElse(null));
+    }
+
+    /** Writes one sheet with a header row; returns the number of data rows. */
+    private long writeXlsx(Stream<Product> products, OutputStream outputStream) throws IOException {
+        long renderStart = System.nanoTime();
         try (SXSSFWorkbook workbook = new SXSSFWorkbook(100)) {
             Sheet sheet = workbook.createSheet("商品一覧");
 
@@ -63,7 +239,9 @@ public class ExcelServiceImpl implements ExcelService {
 
             // Data rows
             int rowNum = 1;
-            for (Product product : products) {
+            Iterator<Product> it = products.iterator();
+            while (it.hasNext()) {
+                Product product = it.next();
                 Row row = sheet.createRow(rowNum++);
                 row.createCell(0).setCellValue(product.getProductCode());
                 row.createCell(1).setCellValue(product.getProductName());
@@ -75,155 +253,349 @@ public class ExcelServiceImpl implements ExcelService {
                         product.getDescription() != null ? product.getDescription() : "");
             }
 
+            long writeStart = System.nanoTime();
+            excelMetrics.exportRender(writeStart - renderStart);
             workbook.write(outputStream);
-        } catch (IOException e) {
-            throw new RuntimeException("Excel export failed", e);
+            excelMetrics.exportWrite(System.nanoTime() - writeStart);
+            return rowNum - 1;
         }
     }
 
-    @Override
-    @Transactional
-    public ImportResult importExcel(MultipartFile file) {
-        Set<String> validCategories = categoryRepository.findAll().stream()
-                .map(c -> c.getCategoryName())
-                .collect(Collectors.toSet());
-
-        List<ImportError> errors = new ArrayList<>();
-        List<Product> toSave = new ArrayList<>();
-        int insertedCount = 0;
-        int updatedCount = 0;
-        int totalRows = 0;
-
-        try (Workbook workbook = new XSSFWorkbook(file.getInputStream())) {
-            Sheet sheet = workbook.getSheetAt(0);
-            int lastRow = sheet.getLastRowNum();
-
-            for (int i = 1; i <= lastRow; i++) {
-                Row row = sheet.getRow(i);
-                if (row == null) continue;
-
-                totalRows++;
-                List<ImportError> rowErrors = new ArrayList<>();
-
-                String productCode = getCellStringValue(row, 0);
-                String productName = getCellStringValue(row, 1);
-                String category = getCellStringValue(row, 2);
-                BigDecimal price = getCellNumericValue(row, 3);
-                Integer stockQuantity = getCellIntegerValue(row, 4);
-                String status = getCellStringValue(row, 5);
-                String description = getCellStringValue(row, 6);
-
-                // Validation
-                if (!StringUtils.hasText(productCode)) {
-                    rowErrors.add(ImportError.builder().row(i + 1).field("商品コード").message("商品コードは必須です").build());
-                } else if (productCode.length() > 20 || !productCode.matches("^[a-zA-Z0-9\\-]+$")) {
-                    rowErrors.add(ImportError.builder().row(i + 1).field("商品コード").message("商品コードは半角英数字とハイフンで20文字以内です").build());
-                }
-                if (!StringUtils.hasText(productName)) {
-                    rowErrors.add(ImportError.builder().row(i + 1).field("商品名").message("商品名は必須です").build());
-                } else if (productName.length() > 200) {
-                    rowErrors.add(ImportError.builder().row(i + 1).field("商品名").message("商品名は200文字以内です").build());
-                }
-                if (!StringUtils.hasText(category)) {
-                    rowErrors.add(ImportError.builder().row(i + 1).field("カテゴリ").message("カテゴリは必須です").build());
-                } else if (!validCategories.contains(category)) {
-                    rowErrors.add(ImportError.builder().row(i + 1).field("カテゴリ").message("無効なカテゴリです").build());
-                }
-                if (price == null) {
-                    rowErrors.add(ImportError.builder().row(i + 1).field("単価").message("単価は必須です").build());
-                } else if (price.compareTo(BigDecimal.ZERO) < 0) {
-                    rowErrors.add(ImportError.builder().row(i + 1).field("単価").message("単価は0以上の数値を指定してください").build());
-                }
-                if (stockQuantity == null) {
-                    rowErrors.add(ImportError.builder().row(i + 1).field("在庫数量").message("在庫数量は必須です").build());
-                } else if (stockQuantity < 0) {
-                    rowErrors.add(ImportError.builder().row(i + 1).field("在庫数量").message("在庫数量は0以上の整数を指定してください").build());
-                }
-                if (!StringUtils.hasText(status)) {
-                    rowErrors.add(ImportError.builder().row(i + 1).field("ステータス").message("ステータスは必須です").build());
-                } else if (!VALID_STATUSES.contains(status)) {
-                    rowErrors.add(ImportError.builder().row(i + 1).field("ステータス").message("ステータスはACTIVE/INACTIVE/DISCONTINUEDのいずれかです").build());
-                }
+    /** Writes a BOM, a header record and one record per product; returns the number of products. */
+    private long writeDelimited(Stream<Product> products, FileFormat format, OutputStream outputStream)
+            throws IOException {
+        try (DelimitedWriter writer = new DelimitedWriter(outputStream, format.getDelimiter())) {
+            writer.writeBom();
+            for (String header : HEADERS) {
+                writer.field(header);
+            }
+            writer.endRow();
+
+            long rows = 0;
+            Iterator<Product> it = products.iterator();
+            while (it.hasNext()) {
+                Product product = it.next();
+                writer.field(product.getProductCode());
+                writer.field(product.getProductName());
+                writer.field(product.getCategory());
+                writer.field(product.getPrice());
+                writer.field(product.getStockQuantity());
+                writer.field(product.getStatus());
+                writer.field(product.getDescription());
+                writer.endRow();
+                rows++;
+            }
+            writer.flush();
+            return rows;
+        }
+    }
 
-                if (!rowErrors.isEmpty()) {
-                    errors.addAll(rowErrors);
-                    continue;
+    /**
+     * Splits the matching rows into parts, largest first so that a big category does not start
+     * last and leave the other workers idle at the end.
+     */
+    private List<ExportPartition> partition(Specification<Product> filter, ExportSplit split) {
+        List<ExportPartition> partitions = new ArrayList<>();
+        if (split == ExportSplit.CATEGORY) {
+            for (String category : productRepository.countByCategory(filter).keySet()) {
+                partitions.add(new ExportPartition(category, ProductSpecification.hasCategory(category)));
+            }
+        } else if (split == ExportSplit.ID_RANGE) {
+            long partSize = Math.max(exportProperties.getPartSize(), 1);
+            productRepository.findIdRange(filter).ifPresent(range -> {
+                long last = range.getUpperBound().getValue().orElseThrow();
+                for (long from = range.getLowerBound().getValue().orElseThrow(); from <= last; from += partSize) {
+                    long to = Math.min(from + partSize - 1, last);
+                    partitions.add(new ExportPartition(from + "-" + to, ProductSpecification.idBetween(from, to)));
                 }
+            });
+        } else {
+            throw new IllegalArgumentException("Not a split export: " + split);
+        }
+        return partitions;
+    }
 
-                // Upsert
-                Optional<Product> existing = productRepository.findByProductCode(productCode);
-                Product product;
-                if (existing.isPresent()) {
-                    product = existing.get();
-                    updatedCount++;
-                } else {
-                    product = new Product();
-                    product.setProductCode(productCode);
-                    insertedCount++;
+    /**
+     * Runs on an export worker with its own read-only transaction and cursor, once one of the
+     * {@code exportPartPermits} shared by all exports is free. While the cursor is open the
+     * session is in {@code rendering}, so that a failed export can cancel its query.
+     */
+    private ExportPart renderPart(Specification<Product> filter, ExportPartition partition, FileFormat format,
+                                  Set<Session> rendering) throws IOException, InterruptedException {
+        exportPartPermits.acquire();
+        Path file = null;
+        try {
+            file = Files.createTempFile("product-export-part-", "." + format.getExtension());
+            Path target = file;
+            TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+            readOnly.setReadOnly(true);
+            long rows = readOnly.execute(status -> {
+                Session session = entityManager.unwrap(Session.class);
+                rendering.add(session);
+                try (Stream<Product> products = productRepository.streamAll(
+                        filter.and(partition.filter()), Sort.by(Sort.Direction.ASC, "id"));
+                     OutputStream out = new BufferedOutputStream(Files.newOutputStream(target), PART_BUFFER_SIZE)) {
+                    Stream<Product> interruptible = products.peek(product -> {
+                        if (Thread.currentThread().isInterrupted()) {
+                            throw new UncheckedIOException(new InterruptedIOException("Export part cancelled"));
+                        }
+                    });
+                    return format == FileFormat.XLSX
+                            ? writeXlsx(interruptible, out)
+                            : writeDelimited(interruptible, format, out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    rendering.remove(session);
                 }
-                product.setProductName(productName);
-                product.setCategory(category);
-                product.setPrice(price);
-                product.setStockQuantity(stockQuantity);
-                product.setStatus(status);
-                product.setDescription(description);
-                toSave.add(product);
-            }
+            });
+            return new ExportPart("products_" + ENTRY_NAME_UNSAFE.matcher(partition.name()).replaceAll("_")
+                    + "." + format.getExtension(), file, rows);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        } finally {
+            exportPartPermits.release();
+        }
+    }
+
+    private static void cancelQuietly(Session session) {
+        try {
+            session.cancelQuery();
+        } catch (RuntimeException ignored) {
+            // The query finished or failed in the meantime
+        }
+    }
 
-            if (!toSave.isEmpty()) {
-                productRepository.saveAll(toSave);
+    /**
+     * Copies parts into the ZIP in the order they finish and deletes each once copied. Parts
+     * without rows are left out. Returns the number of rows written.
+     */
+    private long writeZip(CompletionService<ExportPart> completion, int parts, FileFormat format,
+                          OutputStream outputStream) throws IOException {
+        long rows = 0;
+        ZipOutputStream zip = new ZipOutputStream(outputStream, StandardCharsets.UTF_8);
+        // xlsx is already deflated; compressing it again only costs time on this single thread
+        zip.setLevel(format == FileFormat.XLSX ? Deflater.NO_COMPRESSION : Deflater.BEST_SPEED);
+        for (int i = 0; i < parts; i++) {
+            ExportPart part = takePart(completion);
+            if (part.rows() > 0) {
+                zip.putNextEntry(new ZipEntry(part.name()));
+                Files.copy(part.file(), zip);
+                zip.closeEntry();
+                rows += part.rows();
             }
+            deleteQuietly(part.file());
+        }
+        zip.finish();
+        zip.flush();
+        return rows;
+    }
 
-        } catch (IOException e) {
-            throw new RuntimeException("Excel import failed", e);
+    private static ExportPart takePart(CompletionService<ExportPart> completion) throws IOException {
+        try {
+            return completion.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for export parts");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException cause) throw cause.getCause();
+            if (e.getCause() instanceof IOException cause) throw cause;
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException("Export part failed", e.getCause());
         }
+    }
 
-        return ImportResult.builder()
-                .success(true)
-                .totalRows(totalRows)
-                .insertedCount(insertedCount)
-                .updatedCount(updatedCount)
-                .errorCount(errors.size())
-                .errors(errors)
-                .build();
+    /** File of a part that finished successfully, or {@code null}; only called once all workers stopped. */
+    private static Path finishedPart(Future<ExportPart> future) {
+        return future.state() == Future.State.SUCCESS ? future.resultNow().file() : null;
     }
 
-    private String getCellStringValue(Row row, int cellIndex) {
-        Cell cell = row.getCell(cellIndex);
-        if (cell == null) return null;
-        return switch (cell.getCellType()) {
-            case STRING -> cell.getStringCellValue().trim();
-            case NUMERIC -> String.valueOf((long) cell.getNumericCellValue());
-            case BLANK -> null;
-            default -> cell.toString().trim();
-        };
+    /** Maps a row laid out as {@link #HEADERS} (from any import format) to an unvalidated product. */
+    public static Product readProduct(XlsxRow row) {
+        return Product.builder()
+                .productCode(row.getString(0))
+                .productName(row.getString(1))
+                .category(row.getString(2))
+                .price(row.getDecimal(3))
+                .stockQuantity(row.getInteger(4))
+                .status(row.getString(5))
+                .description(row.getString(6))
+                .build();
     }
 
-    private BigDecimal getCellNumericValue(Row row, int cellIndex) {
-        Cell cell = row.getCell(cellIndex);
-        if (cell == null) return null;
+    private void deleteQuietly(Path path) {
+        if (path == null) return;
         try {
-            return switch (cell.getCellType()) {
-                case NUMERIC -> BigDecimal.valueOf(cell.getNumericCellValue());
-                case STRING -> new BigDecimal(cell.getStringCellValue().trim());
-                default -> null;
-            };
-        } catch (NumberFormatException e) {
-            return null;
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Left for the OS to clean up with the rest of the temp directory
         }
     }
 
-    private Integer getCellIntegerValue(Row row, int cellIndex) {
-        Cell cell = row.getCell(cellIndex);
-        if (cell == null) return null;
-        try {
-            return switch (cell.getCellType()) {
-                case NUMERIC -> (int) cell.getNumericCellValue();
-                case STRING -> Integer.parseInt(cell.getStringCellValue().trim());
-                default -> null;
-            };
-        } catch (NumberFormatException e) {
-            return null;
+    /** Business fields that differ between the stored and the imported product. */
+    private static List<ImportChange.FieldChange> diff(Product before, Product after) {
+        List<ImportChange.FieldChange> fields = new ArrayList<>();
+        addIfChanged(fields, "productName", before.getProductName(), after.getProductName());
+        addIfChanged(fields, "category", before.getCategory(), after.getCategory());
+        if (before.getPrice() == null || after.getPrice() == null
+                ? before.getPrice() != after.getPrice()
+                : before.getPrice().compareTo(after.getPrice()) != 0) {
+            fields.add(new ImportChange.FieldChange("price", before.getPrice(), after.getPrice()));
+        }
+        addIfChanged(fields, "stockQuantity", before.getStockQuantity(), after.getStockQuantity());
+        addIfChanged(fields, "status", before.getStatus(), after.getStatus());
+        addIfChanged(fields, "description", before.getDescription(), after.getDescription());
+        return fields;
+    }
+
+    private static void addIfChanged(List<ImportChange.FieldChange> fields, String field, Object before, Object after) {
+        if (!Objects.equals(before, after)) {
+            fields.add(new ImportChange.FieldChange(field, before, after));
+        }
+    }
+
+    /** Writer stage: runs on the importing thread and sees batches in file order. */
+    private class ImportContext {
+
+        private final ImportProgress progress;
+        private final boolean dryRun;
+        private final Map<String, Product> pending = new LinkedHashMap<>();
+        /** First row of each code that appears more than once in the buffered chunk. */
+        private final Map<String, Product> firstPending = new HashMap<>();
+        /**
+         * Dry run only: the hash each new or changed code would have been written with, so that
+         * later chunks see those rows as a real run would. Listed products are kept for diffs.
+         */
+        private final Map<String, Long> dryRunHashes = new HashMap<>();
+        private final Map<String, Product> dryRunListed = new HashMap<>();
+
+        ImportContext(ImportProgress progress, boolean dryRun) {
+            this.progress = progress;
+            this.dryRun = dryRun;
+        }
+
+        void processBatch(ImportPipeline.Batch batch) {
+            excelMetrics.rowsParsed(batch.rowCount(), batch.rowCount() - batch.validRows().size());
+            excelMetrics.importRead(batch.readNanos());
+            excelMetrics.importValidate(batch.validateNanos());
+            if (!batch.errors().isEmpty()) {
+                progress.addErrors(batch.errors());
+            }
+            for (Product product : batch.validRows()) {
+                // Later rows win when the same code appears more than once in a chunk. Each later row
+                // is counted against the one before, as it would be if they were in different chunks.
+                product.setContentHash(product.computeContentHash());
+                Product previous = pending.put(product.getProductCode(), product);
+                if (previous != null) {
+                    firstPending.putIfAbsent(product.getProductCode(), previous);
+                    if (product.getContentHash().equals(previous.getContentHash())) {
+                        progress.unchanged(1);
+                    } else {
+                        progress.updated(1);
+                    }
+                }
+                if (pending.size() >= importProperties.getChunkSize()) {
+                    flush();
+                }
+            }
+        }
+
+        /**
+         * Writes the new and changed products of the buffered chunk, comparing content hashes
+         * with the stored ones; a dry run records them as changes instead. Commits on its own
+         * unless the caller already holds a transaction, in which case the chunk joins it.
+         */
+        void flush() {
+            if (pending.isEmpty()) return;
+
+            long start = System.nanoTime();
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<String, Long> storedHashes = new HashMap<>();
+                for (ProductHashView stored : productRepository.findContentHashesByProductCodeIn(pending.keySet())) {
+                    storedHashes.put(stored.getProductCode(), stored.getContentHash());
+                }
+                if (dryRun) {
+                    for (String code : pending.keySet()) {
+                        Long written = dryRunHashes.get(code);
+                        if (written != null) {
+                            storedHashes.put(code, written);
+                        }
+                    }
+                }
+
+                Map<String, Product> changed = new LinkedHashMap<>();
+                int inserted = 0;
+                int updated = 0;
+                for (Product product : pending.values()) {
+                    String code = product.getProductCode();
+                    boolean exists = storedHashes.containsKey(code);
+                    // The first row of the code is counted against the table, the last one is written
+                    Product first = firstPending.getOrDefault(code, product);
+                    if (!exists) {
+                        inserted++;
+                    } else if (!first.getContentHash().equals(storedHashes.get(code))) {
+                        updated++;
+                    }
+                    // A stored null hash is unknown and never matches
+                    if (!exists || !product.getContentHash().equals(storedHashes.get(code))) {
+                        changed.put(code, product);
+                    }
+                }
+                progress.inserted(inserted);
+                progress.updated(updated);
+                progress.unchanged(pending.size() - inserted - updated);
+
+                if (changed.isEmpty()) return;
+                if (dryRun) {
+                    changed.forEach((code, product) -> dryRunHashes.put(code, product.getContentHash()));
+                    recordChanges(changed, storedHashes.keySet());
+                    return;
+                }
+                productRepository.upsertAll(changed.values());
+                eventPublisher.publishEvent(ProductChangedEvent.upserted(
+                        productRepository.findIdsByProductCodeIn(changed.keySet())));
+            });
+            pending.clear();
+            firstPending.clear();
+            excelMetrics.importWrite(System.nanoTime() - start);
         }
+
+        /** Lists changes field by field until {@code app.import.dry-run-max-changes} is reached. */
+        private void recordChanges(Map<String, Product> changed, Set<String> existingCodes) {
+            int room = importProperties.getDryRunMaxChanges() - progress.getChangeCount();
+            if (room <= 0) return;
+
+            List<String> codes = changed.keySet().stream().limit(room).toList();
+            // Codes changed by an earlier chunk compare with that chunk's row, the rest with the table
+            Map<String, Product> stored = new HashMap<>();
+            List<String> storedCodes = codes.stream()
+                    .filter(code -> existingCodes.contains(code) && !dryRunListed.containsKey(code))
+                    .toList();
+            if (!storedCodes.isEmpty()) {
+                for (Product product : productRepository.findByProductCodeIn(storedCodes)) {
+                    stored.put(product.getProductCode(), product);
+                }
+            }
+
+            List<ImportChange> changes = new ArrayList<>(codes.size());
+            for (String code : codes) {
+                Product before = dryRunListed.containsKey(code) ? dryRunListed.get(code) : stored.get(code);
+                changes.add(ImportChange.builder()
+                        .productCode(code)
+                        .type(existingCodes.contains(code) ? ImportChange.Type.UPDATE : ImportChange.Type.INSERT)
+                        .fields(before == null ? List.of() : diff(before, changed.get(code)))
+                        .build());
+                dryRunListed.put(code, changed.get(code));
+            }
+            progress.addChanges(changes);
+        }
+    }
+
+    /** One file of a split export: a name for the ZIP entry and the rows it covers on top of the filter. */
+    private record ExportPartition(String name, Specification<Product> filter) {
+    }
+
+    private record ExportPart(String name, Path file, long rows) {
     }
 }
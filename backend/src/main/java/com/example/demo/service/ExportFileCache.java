@@ -0,0 +1,174 @@
+package com.example.demo.service;
+
+import com.example.demo.config.CachingProperties;
+import com.example.demo.dto.CacheStatistics;
+import com.example.demo.dto.FileFormat;
+import com.example.demo.dto.ProductSearchRequest;
+import com.example.demo.event.ProductChangeReplicatedEvent;
+import com.example.demo.event.ProductChangedEvent;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generated export files on disk, keyed on the normalized filter, the format and the product data
+ * version. Identical requests arriving while a file is being generated wait for that generation
+ * instead of starting their own. The total file size is bounded; evicted and outdated files are
+ * deleted after a short delay because a response may still be reading them.
+ */
+@Slf4j
+@Component
+public class ExportFileCache implements DisposableBean {
+
+    private static final String FILE_PREFIX = "export-";
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+    private static final Executor DELAYED_DELETE = CompletableFuture.delayedExecutor(1, TimeUnit.MINUTES);
+
+    private final ExcelService excelService;
+    private final SearchResultCache searchResultCache;
+    private final boolean enabled;
+    private final Path directory;
+    private final boolean temporaryDirectory;
+    private final AsyncCache<ExportKey, ExportFile> files;
+
+    public ExportFileCache(ExcelService excelService, SearchResultCache searchResultCache,
+                           CachingProperties cachingProperties) throws IOException {
+        CachingProperties.Export properties = cachingProperties.getExport();
+        this.excelService = excelService;
+        this.searchResultCache = searchResultCache;
+        this.enabled = properties.isEnabled();
+        this.temporaryDirectory = properties.getDirectory() == null;
+        this.directory = prepareDirectory(properties.getDirectory());
+        this.files = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toKilobytes())
+                .weigher((ExportKey key, ExportFile file) -> (int) Math.min(Integer.MAX_VALUE, file.size() >> 10))
+                .removalListener((ExportKey key, ExportFile file, RemovalCause cause) -> {
+                    if (file != null) {
+                        CompletableFuture.runAsync(() -> deleteQuietly(file.path()), DELAYED_DELETE);
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+    }
+
+    public record ExportFile(Path path, long size) {
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the export file for the request, generating it on the calling thread unless the
+     * same export is already cached or being generated by another request.
+     */
+    public ExportFile get(ProductSearchRequest request, FileFormat format) {
+        ExportKey key = new ExportKey(SearchFilterKey.of(searchResultCache.currentVersion(), request), format);
+        CompletableFuture<ExportFile> created = new CompletableFuture<>();
+        CompletableFuture<ExportFile> file = files.get(key, (k, executor) -> created);
+        if (file == created) {
+            generate(request, format, created);
+        }
+        try {
+            return file.join();
+        } catch (CompletionException e) {
+            // Failed generations are dropped by the cache, so the next request tries again
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidateAll();
+    }
+
+    // Exports generated from a lagging replica in the meantime may miss the change
+    @EventListener
+    public void onProductChangeReplicated(ProductChangeReplicatedEvent event) {
+        invalidateAll();
+    }
+
+    /**
+     * Drops every file, and every generation still running as soon as it finishes. Requests
+     * already waiting on a generation still get its file; the outdated key is never served again
+     * and its file is deleted instead of lingering until size eviction.
+     */
+    private void invalidateAll() {
+        files.asMap().forEach((key, file) -> file.whenComplete((result, error) -> files.asMap().remove(key, file)));
+    }
+
+    public CacheStatistics statistics() {
+        return CacheStatistics.of("export", files.synchronous().estimatedSize(), files.synchronous().stats());
+    }
+
+    @Override
+    public void destroy() {
+        files.synchronous().invalidateAll();
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory, FILE_PREFIX + "*")) {
+            leftovers.forEach(ExportFileCache::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("Could not clean export cache directory {}", directory, e);
+        }
+        if (temporaryDirectory) {
+            deleteQuietly(directory);
+        }
+    }
+
+    private void generate(ProductSearchRequest request, FileFormat format, CompletableFuture<ExportFile> result) {
+        Path path = null;
+        try {
+            path = Files.createTempFile(directory, FILE_PREFIX, "." + format.getExtension());
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path), OUTPUT_BUFFER_SIZE)) {
+                excelService.export(request, format, out);
+            }
+            result.complete(new ExportFile(path, Files.size(path)));
+        } catch (IOException e) {
+            deleteQuietly(path);
+            result.completeExceptionally(new UncheckedIOException(e));
+        } catch (RuntimeException e) {
+            deleteQuietly(path);
+            result.completeExceptionally(e);
+        }
+    }
+
+    private static Path prepareDirectory(Path configured) throws IOException {
+        if (configured == null) {
+            return Files.createTempDirectory("product-export-cache-");
+        }
+        Files.createDirectories(configured);
+        // Files from a previous run are not in the cache and would never be evicted
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(configured, FILE_PREFIX + "*")) {
+            leftovers.forEach(ExportFileCache::deleteQuietly);
+        }
+        return configured;
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) return;
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete export file {}", path, e);
+        }
+    }
+
+    private record ExportKey(SearchFilterKey filter, FileFormat format) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.FileFormat;
+import com.example.demo.dto.ImportJobStatus;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface ImportJobService {
+
+    ImportJobStatus submit(MultipartFile file, FileFormat format, boolean dryRun);
+
+    ImportJobStatus getStatus(String jobId);
+}
@@ -0,0 +1,185 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ImportProperties;
+import com.example.demo.dto.FileFormat;
+import com.example.demo.dto.ImportJobStatus;
+import com.example.demo.dto.ImportJobStatus.State;
+import com.example.demo.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+public class ImportJobServiceImpl implements ImportJobService, DisposableBean {
+
+    private final ExcelService excelService;
+    private final Duration retention;
+    private final int maxErrors;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ImportJobServiceImpl(ExcelService excelService, ImportProperties importProperties) {
+        ImportProperties.Jobs properties = importProperties.getJobs();
+        this.excelService = excelService;
+        this.retention = properties.getRetention();
+        this.maxErrors = importProperties.getMaxErrors();
+        this.executor = new ThreadPoolExecutor(
+                properties.getMaxConcurrent(), properties.getMaxConcurrent(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                Thread.ofVirtual().name("import-job-", 0).factory());
+    }
+
+    @Override
+    public ImportJobStatus submit(MultipartFile file, FileFormat format, boolean dryRun) {
+        purgeExpired();
+
+        Path tempFile;
+        try {
+            // The multipart upload is deleted when the request ends, so keep our own copy
+            tempFile = Files.createTempFile("product-import-job-", "." + format.getExtension());
+            file.transferTo(tempFile);
+        } catch (IOException e) {
+            throw new RuntimeException("Excel import failed", e);
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), file.getOriginalFilename(), tempFile, format,
+                dryRun, new ImportProgress(maxErrors));
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            deleteQuietly(tempFile);
+            throw new BusinessException("インポートジョブの受付上限に達しています。しばらくしてから再実行してください");
+        }
+        return job.toStatus();
+    }
+
+    @Override
+    public ImportJobStatus getStatus(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new BusinessException("インポートジョブが見つかりません: ID=" + jobId);
+        }
+        return job.toStatus();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void run(ImportJob job) {
+        job.start();
+        try {
+            excelService.importFile(job.file, job.format, job.progress, job.dryRun);
+            job.finish(State.COMPLETED, null);
+        } catch (BusinessException e) {
+            job.finish(State.FAILED, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Import job {} failed", job.id, e);
+            job.finish(State.FAILED, "インポート処理に失敗しました");
+        } finally {
+            deleteQuietly(job.file);
+        }
+    }
+
+    private void purgeExpired() {
+        LocalDateTime threshold = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(threshold));
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Left for the OS to clean up with the rest of the temp directory
+        }
+    }
+
+    private static class ImportJob {
+
+        private final String id;
+        private final String fileName;
+        private final Path file;
+        private final FileFormat format;
+        private final boolean dryRun;
+        private final ImportProgress progress;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+
+        private volatile State state = State.QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile long startNanos;
+        private volatile long finishNanos;
+        private volatile String message;
+
+        ImportJob(String id, String fileName, Path file, FileFormat format, boolean dryRun,
+                  ImportProgress progress) {
+            this.id = id;
+            this.fileName = fileName;
+            this.file = file;
+            this.format = format;
+            this.dryRun = dryRun;
+            this.progress = progress;
+        }
+
+        void start() {
+            startNanos = System.nanoTime();
+            startedAt = LocalDateTime.now();
+            state = State.RUNNING;
+        }
+
+        void finish(State finalState, String failureMessage) {
+            finishNanos = System.nanoTime();
+            message = failureMessage;
+            finishedAt = LocalDateTime.now();
+            state = finalState;
+        }
+
+        ImportJobStatus toStatus() {
+            int rows = progress.getTotalRows();
+            return ImportJobStatus.builder()
+                    .jobId(id)
+                    .state(state)
+                    .fileName(fileName)
+                    .rowsProcessed(rows)
+                    .insertedCount(progress.getInsertedCount())
+                    .updatedCount(progress.getUpdatedCount())
+                    .unchangedCount(progress.getUnchangedCount())
+                    .errorCount(progress.getErrorCount())
+                    .rowsPerSecond(rowsPerSecond(rows))
+                    .submittedAt(submittedAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .message(message)
+                    .errors(progress.getErrors())
+                    .dryRun(dryRun)
+                    .changes(dryRun ? progress.getChanges() : null)
+                    .build();
+        }
+
+        private double rowsPerSecond(int rows) {
+            if (startedAt == null) return 0;
+            long end = finishedAt != null ? finishNanos : System.nanoTime();
+            double seconds = (end - startNanos) / 1_000_000_000.0;
+            return seconds > 0 ? Math.round(rows / seconds * 10) / 10.0 : 0;
+        }
+    }
+}
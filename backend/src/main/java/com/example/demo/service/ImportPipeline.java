@@ -0,0 +1,177 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ImportProperties;
+import com.example.demo.dto.FileFormat;
+import com.example.demo.dto.ImportError;
+import com.example.demo.entity.Product;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Three-stage import: a reader thread parses the file into batches, a worker pool converts and
+ * validates them, and the calling thread receives the results in file order.
+ *
+ * <p>Pending batches travel through a bounded queue in the order they were read, each as a future
+ * of its validation result, so the reader blocks once the consumer falls
+ * {@code queueCapacity} batches behind and no reordering is needed on the consumer side.
+ * The consumer runs on the caller's thread so it can join the caller's transaction.
+ */
+public class ImportPipeline {
+
+    private static final CompletableFuture<Batch> END = CompletableFuture.completedFuture(null);
+
+    private final ProductRowValidator validator;
+    private final ImportProperties.Pipeline settings;
+
+    public ImportPipeline(ProductRowValidator validator, ImportProperties.Pipeline settings) {
+        this.validator = validator;
+        this.settings = settings;
+    }
+
+    /**
+     * Validated rows of one batch, in file order. Error rows carry their original row number.
+     * The timings cover reading the batch from the file and validating it, excluding queue waits.
+     */
+    public record Batch(int rowCount, List<Product> validRows, List<ImportError> errors,
+                        long readNanos, long validateNanos) {
+    }
+
+    public void run(Path file, ImportProgress progress, Consumer<Batch> consumer) throws IOException {
+        run(file, FileFormat.XLSX, progress, consumer);
+    }
+
+    /**
+     * Runs the pipeline over {@code file}, skipping the header row. Returns once every batch has
+     * been handed to {@code consumer}; a failure in any stage stops the others and is rethrown.
+     */
+    public void run(Path file, FileFormat format, ImportProgress progress, Consumer<Batch> consumer)
+            throws IOException {
+        BlockingQueue<CompletableFuture<Batch>> queue = new ArrayBlockingQueue<>(settings.getQueueCapacity());
+
+        try (ExecutorService workers = Executors.newFixedThreadPool(
+                Math.max(settings.getWorkers(), 1), Thread.ofPlatform().name("import-validate-", 0).factory())) {
+            Thread reader = Thread.ofPlatform().name("import-read").start(() -> read(file, format, progress, workers, queue));
+            try {
+                for (CompletableFuture<Batch> next = queue.take(); next != END; next = queue.take()) {
+                    consumer.accept(next.join());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Import interrupted", e);
+            } catch (CompletionException e) {
+                throw unwrap(e);
+            } finally {
+                // Unblocks the reader if we are leaving early
+                reader.interrupt();
+                queue.clear();
+                joinQuietly(reader);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void read(Path file, FileFormat format, ImportProgress progress, ExecutorService workers,
+                      BlockingQueue<CompletableFuture<Batch>> queue) {
+        try {
+            List<XlsxRow> rows = new ArrayList<>(settings.getBatchSize());
+            long[] batchStart = {System.nanoTime()};
+            readRows(file, format, row -> {
+                if (row.getRowNum() == 0) return;
+                progress.rowRead();
+                rows.add(row.copy());
+                if (rows.size() >= settings.getBatchSize()) {
+                    submit(List.copyOf(rows), System.nanoTime() - batchStart[0], workers, queue);
+                    rows.clear();
+                    batchStart[0] = System.nanoTime();
+                }
+            });
+            if (!rows.isEmpty()) {
+                submit(rows, System.nanoTime() - batchStart[0], workers, queue);
+            }
+            put(queue, END);
+        } catch (IOException e) {
+            offerFailure(queue, new UncheckedIOException(e));
+        } catch (ReaderInterrupted e) {
+            // The consumer has stopped; nothing left to report
+        } catch (RuntimeException e) {
+            offerFailure(queue, e);
+        }
+    }
+
+    private static void readRows(Path file, FileFormat format, Consumer<XlsxRow> handler) throws IOException {
+        if (format == FileFormat.XLSX) {
+            StreamingXlsxReader.read(file, handler);
+        } else {
+            DelimitedReader.read(file, format.getDelimiter(), handler);
+        }
+    }
+
+    private void submit(List<XlsxRow> rows, long readNanos, ExecutorService workers,
+                        BlockingQueue<CompletableFuture<Batch>> queue) {
+        put(queue, CompletableFuture.supplyAsync(() -> validate(rows, readNanos), workers));
+    }
+
+    private Batch validate(List<XlsxRow> rows, long readNanos) {
+        long start = System.nanoTime();
+        List<Product> validRows = new ArrayList<>(rows.size());
+        List<ImportError> errors = new ArrayList<>();
+        for (XlsxRow row : rows) {
+            Product product = ExcelServiceImpl.readProduct(row);
+            List<ImportError> rowErrors = validator.validate(row.getRowNum() + 1, product);
+            if (rowErrors.isEmpty()) {
+                validRows.add(product);
+            } else {
+                errors.addAll(rowErrors);
+            }
+        }
+        return new Batch(rows.size(), validRows, errors, readNanos, System.nanoTime() - start);
+    }
+
+    private static void put(BlockingQueue<CompletableFuture<Batch>> queue, CompletableFuture<Batch> batch) {
+        try {
+            queue.put(batch);
+        } catch (InterruptedException e) {
+            throw new ReaderInterrupted();
+        }
+    }
+
+    private static void offerFailure(BlockingQueue<CompletableFuture<Batch>> queue, RuntimeException failure) {
+        try {
+            queue.put(CompletableFuture.failedFuture(failure));
+        } catch (InterruptedException ignored) {
+            // The consumer has already stopped
+        }
+    }
+
+    private static RuntimeException unwrap(CompletionException e) {
+        return e.getCause() instanceof RuntimeException cause ? cause : e;
+    }
+
+    private static void joinQuietly(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Unwinds the SAX callback when the consumer stops early. */
+    private static class ReaderInterrupted extends RuntimeException {
+
+        ReaderInterrupted() {
+            super(null, null, false, false);
+        }
+    }
+}
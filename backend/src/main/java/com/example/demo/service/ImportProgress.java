@@ -0,0 +1,119 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ImportChange;
+import com.example.demo.dto.ImportError;
+import com.example.demo.dto.ImportResult;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Running counters of an import. Updated by the importing thread and safe to read from others
+ * while the import is still in progress. Only the first errors are kept, so a file that fails on
+ * every row neither grows the progress nor makes each status poll copy all of them.
+ */
+public class ImportProgress {
+
+    private final int maxErrors;
+
+    private final AtomicInteger totalRows = new AtomicInteger();
+    private final AtomicInteger insertedCount = new AtomicInteger();
+    private final AtomicInteger updatedCount = new AtomicInteger();
+    private final AtomicInteger unchangedCount = new AtomicInteger();
+    private final AtomicInteger errorCount = new AtomicInteger();
+    private final List<ImportError> errors = new ArrayList<>();
+    private final List<ImportChange> changes = new ArrayList<>();
+
+    /** @param maxErrors errors kept for {@link #getErrors()}; {@link #getErrorCount()} counts all */
+    public ImportProgress(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    public void rowRead() {
+        totalRows.incrementAndGet();
+    }
+
+    public void inserted(int count) {
+        insertedCount.addAndGet(count);
+    }
+
+    public void updated(int count) {
+        updatedCount.addAndGet(count);
+    }
+
+    public void unchanged(int count) {
+        unchangedCount.addAndGet(count);
+    }
+
+    public void addChanges(Collection<ImportChange> rowChanges) {
+        synchronized (changes) {
+            changes.addAll(rowChanges);
+        }
+    }
+
+    public void addErrors(Collection<ImportError> rowErrors) {
+        errorCount.addAndGet(rowErrors.size());
+        synchronized (errors) {
+            int room = maxErrors - errors.size();
+            if (room > 0) {
+                errors.addAll(rowErrors.stream().limit(room).toList());
+            }
+        }
+    }
+
+    public int getTotalRows() {
+        return totalRows.get();
+    }
+
+    public int getInsertedCount() {
+        return insertedCount.get();
+    }
+
+    public int getUpdatedCount() {
+        return updatedCount.get();
+    }
+
+    public int getUnchangedCount() {
+        return unchangedCount.get();
+    }
+
+    public int getChangeCount() {
+        synchronized (changes) {
+            return changes.size();
+        }
+    }
+
+    public List<ImportChange> getChanges() {
+        synchronized (changes) {
+            return new ArrayList<>(changes);
+        }
+    }
+
+    public int getErrorCount() {
+        return errorCount.get();
+    }
+
+    /** The first errors, up to the limit given at construction. */
+    public List<ImportError> getErrors() {
+        synchronized (errors) {
+            return new ArrayList<>(errors);
+        }
+    }
+
+    /** Result of the import; a dry run also lists the changes it found. */
+    public ImportResult toResult(boolean dryRun) {
+        return ImportResult.builder()
+                .success(true)
+                .totalRows(getTotalRows())
+                .insertedCount(getInsertedCount())
+                .updatedCount(getUpdatedCount())
+                .unchangedCount(getUnchangedCount())
+                .errorCount(getErrorCount())
+                .errors(getErrors())
+                .dryRun(dryRun)
+                .changes(dryRun ? getChanges() : null)
+                .build();
+    }
+}
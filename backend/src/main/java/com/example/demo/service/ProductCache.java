@@ -0,0 +1,56 @@
+package com.example.demo.service;
+
+import com.example.demo.config.CachingProperties;
+import com.example.demo.dto.CacheStatistics;
+import com.example.demo.entity.Product;
+import com.example.demo.event.ProductChangeReplicatedEvent;
+import com.example.demo.event.ProductChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Size-bounded read-through cache of products by id. Caffeine's W-TinyLFU policy keeps the
+ * frequently viewed SKUs resident. Entries are dropped after any committed change to the product.
+ * Cached instances are shared and must not be modified.
+ */
+@Component
+public class ProductCache {
+
+    private final Cache<Long, Product> cache;
+
+    public ProductCache(CachingProperties cachingProperties) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cachingProperties.getProduct().getMaxSize())
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Product> get(Long id, Function<Long, Optional<Product>> loader) {
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    public Optional<Product> getIfPresent(Long id) {
+        return Optional.ofNullable(cache.getIfPresent(id));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        cache.invalidateAll(event.productIds());
+    }
+
+    // Reads from a lagging replica may have cached the old values again in the meantime
+    @EventListener
+    public void onProductChangeReplicated(ProductChangeReplicatedEvent event) {
+        cache.invalidateAll(event.productIds());
+    }
+
+    public CacheStatistics statistics() {
+        return CacheStatistics.of("product", cache.estimatedSize(), cache.stats());
+    }
+}
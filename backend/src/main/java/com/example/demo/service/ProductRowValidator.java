@@ -0,0 +1,88 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ImportError;
+import com.example.demo.entity.Product;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Field rules applied to each uploaded product row (see design.md 7.2).
+ * Holds no mutable state, so one instance can be shared for a whole import.
+ */
+public class ProductRowValidator {
+
+    public static final Set<String> VALID_STATUSES = Set.of("ACTIVE", "INACTIVE", "DISCONTINUED");
+
+    private static final Pattern PRODUCT_CODE = Pattern.compile("[a-zA-Z0-9\\-]+");
+
+    private final Set<String> validCategories;
+
+    public ProductRowValidator(Set<String> validCategories) {
+        this.validCategories = validCategories;
+    }
+
+    /**
+     * Validates one row.
+     *
+     * @param rowNumber 1-based row number reported back to the user
+     * @return the errors found, empty when the row can be imported
+     */
+    public List<ImportError> validate(int rowNumber, Product product) {
+        // Most rows are valid, so the list is only allocated once an error shows up
+        List<ImportError> errors = null;
+
+        String productCode = product.getProductCode();
+        if (!StringUtils.hasText(productCode)) {
+            errors = add(errors, error(rowNumber, "商品コード", "商品コードは必須です"));
+        } else if (productCode.length() > 20 || !PRODUCT_CODE.matcher(productCode).matches()) {
+            errors = add(errors, error(rowNumber, "商品コード", "商品コードは半角英数字とハイフンで20文字以内です"));
+        }
+        String productName = product.getProductName();
+        if (!StringUtils.hasText(productName)) {
+            errors = add(errors, error(rowNumber, "商品名", "商品名は必須です"));
+        } else if (productName.length() > 200) {
+            errors = add(errors, error(rowNumber, "商品名", "商品名は200文字以内です"));
+        }
+        String category = product.getCategory();
+        if (!StringUtils.hasText(category)) {
+            errors = add(errors, error(rowNumber, "カテゴリ", "カテゴリは必須です"));
+        } else if (!validCategories.contains(category)) {
+            errors = add(errors, error(rowNumber, "カテゴリ", "無効なカテゴリです"));
+        }
+        BigDecimal price = product.getPrice();
+        if (price == null) {
+            errors = add(errors, error(rowNumber, "単価", "単価は必須です"));
+        } else if (price.compareTo(BigDecimal.ZERO) < 0) {
+            errors = add(errors, error(rowNumber, "単価", "単価は0以上の数値を指定してください"));
+        }
+        Integer stockQuantity = product.getStockQuantity();
+        if (stockQuantity == null) {
+            errors = add(errors, error(rowNumber, "在庫数量", "在庫数量は必須です"));
+        } else if (stockQuantity < 0) {
+            errors = add(errors, error(rowNumber, "在庫数量", "在庫数量は0以上の整数を指定してください"));
+        }
+        String status = product.getStatus();
+        if (!StringUtils.hasText(status)) {
+            errors = add(errors, error(rowNumber, "ステータス", "ステータスは必須です"));
+        } else if (!VALID_STATUSES.contains(status)) {
+            errors = add(errors, error(rowNumber, "ステータス", "ステータスはACTIVE/INACTIVE/DISCONTINUEDのいずれかです"));
+        }
+
+        return errors != null ? errors : List.of();
+    }
+
+    private static List<ImportError> add(List<ImportError> errors, ImportError error) {
+        List<ImportError> target = errors != null ? errors : new ArrayList<>(4);
+        target.add(error);
+        return target;
+    }
+
+    private static ImportError error(int rowNumber, String field, String message) {
+        return ImportError.builder().row(rowNumber).field(field).message(message).build();
+    }
+}
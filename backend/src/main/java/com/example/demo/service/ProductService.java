@@ -1,12 +1,26 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.PageResponse;
+import com.example.demo.dto.ProductListItem;
 import com.example.demo.dto.ProductSearchRequest;
 import com.example.demo.entity.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
 
 public interface ProductService {
 
-    PageResponse<Product> search(ProductSearchRequest request);
+    PageResponse<ProductListItem> search(ProductSearchRequest request);
+
+    /**
+     * Writes every product matching the filters in id order, while rows are still being read from
+     * the database. A JSON mapper writes newline-delimited JSON; a binary (Smile, CBOR) mapper
+     * writes a sequence of top-level values. Paging and sort parameters are ignored.
+     *
+     * @return number of products written
+     */
+    long writeBulk(ProductSearchRequest request, ObjectMapper mapper, OutputStream outputStream) throws IOException;
 
     Product findById(Long id);
 
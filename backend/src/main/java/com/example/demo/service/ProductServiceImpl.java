@@ -1,87 +1,289 @@
 package com.example.demo.service;
 
+import com.example.demo.config.SearchProperties;
 import com.example.demo.dto.PageResponse;
+import com.example.demo.dto.ProductFacets;
+import com.example.demo.dto.ProductListItem;
 import com.example.demo.dto.ProductSearchRequest;
+import com.example.demo.dto.ProductSearchRequest.CountMode;
+import com.example.demo.dto.ProductSearchRequest.Pagination;
+import com.example.demo.entity.Category;
 import com.example.demo.entity.Product;
+import com.example.demo.event.ProductChangedEvent;
 import com.example.demo.exception.BusinessException;
+import com.example.demo.repository.ProductCursor;
 import com.example.demo.repository.ProductRepository;
 import com.example.demo.repository.ProductSpecification;
+import com.example.demo.search.ProductKeywordIndex;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ProductServiceImpl implements ProductService {
 
+    private static final List<String> FACET_STATUSES = List.of("ACTIVE", "INACTIVE", "DISCONTINUED");
+
     private final ProductRepository productRepository;
+    private final ProductKeywordIndex keywordIndex;
+    private final CategoryRegistry categoryRegistry;
+    private final ProductCache productCache;
+    private final SearchResultCache searchResultCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SearchProperties searchProperties;
 
     @Override
-    public PageResponse<Product> search(ProductSearchRequest request) {
-        Sort sort = parseSort(request.getSorter());
-        Pageable pageable = PageRequest.of(request.getCurrent() - 1, request.getPageSize(), sort);
+    public PageResponse<ProductListItem> search(ProductSearchRequest request) {
+        long dataVersion = searchResultCache.currentVersion();
+        Collection<Long> keywordIds = keywordIndex.lookup(request.getKeyword()).orElse(null);
+        ProductFacets facets = request.isFacets()
+                ? searchResultCache.facets(dataVersion, request, () -> countFacets(request, keywordIds))
+                : null;
+
+        if (StringUtils.hasText(request.getCategory()) && !categoryRegistry.isValidName(request.getCategory())) {
+            // Unknown category cannot match anything; answer without touching the database
+            return PageResponse.<ProductListItem>builder()
+                    .data(List.of())
+                    .total(0)
+                    .success(true)
+                    .current(request.getCurrent())
+                    .pageSize(request.getPageSize())
+                    .facets(facets)
+                    .build();
+        }
+
+        Specification<Product> spec = ProductSpecification.search(request, keywordIds);
+        Sort.Order order = parseSort(request.getSorter());
+        boolean cursorMode = request.getPagination() == Pagination.CURSOR || StringUtils.hasText(request.getCursor());
+        if (!cursorMode && offset(request) > Integer.MAX_VALUE) {
+            throw new BusinessException("ページ番号が大きすぎます: current=" + request.getCurrent());
+        }
+        List<String> fields = resolveFields(request.getFields(), order);
 
-        Page<Product> page = productRepository.findAll(
-                ProductSpecification.search(request), pageable);
+        SearchResultCache.PageSlice slice = searchResultCache.page(dataVersion, request, order, cursorMode, fields,
+                () -> cursorMode
+                        ? fetchCursorPage(spec, order, fields, request)
+                        : fetchOffsetPage(spec, order, fields, request));
+        long total = request.getCountMode() == CountMode.NONE
+                ? -1
+                : searchResultCache.count(dataVersion, request, () -> count(spec, request));
 
-        return PageResponse.<Product>builder()
-                .data(page.getContent())
-                .total(page.getTotalElements())
+        return PageResponse.<ProductListItem>builder()
+                .data(slice.content())
+                .total(total)
                 .success(true)
                 .current(request.getCurrent())
                 .pageSize(request.getPageSize())
+                .totalEstimated(request.getCountMode() == CountMode.ESTIMATED ? Boolean.TRUE : null)
+                .nextCursor(slice.nextCursor())
+                .facets(facets)
                 .build();
     }
 
+    /** Facet counts in master order, with zero counts for values that have no matches. */
+    private ProductFacets countFacets(ProductSearchRequest request, Collection<Long> keywordIds) {
+        ProductFacets counted = productRepository.countFacets(
+                request, keywordIds, searchProperties.getFacets().getPriceBounds());
+        List<String> categories = categoryRegistry.getCategories().stream().map(Category::getCategoryName).toList();
+        return ProductFacets.builder()
+                .category(inOrder(categories, counted.getCategory()))
+                .status(inOrder(FACET_STATUSES, counted.getStatus()))
+                .price(counted.getPrice())
+                .build();
+    }
+
+    private static List<ProductFacets.ValueCount> inOrder(List<String> values, List<ProductFacets.ValueCount> counts) {
+        Map<String, Long> byValue = new HashMap<>();
+        counts.forEach(c -> byValue.put(c.value(), c.count()));
+        return values.stream()
+                .map(value -> new ProductFacets.ValueCount(value, byValue.getOrDefault(value, 0L)))
+                .toList();
+    }
+
+    private SearchResultCache.PageSlice fetchOffsetPage(Specification<Product> spec, Sort.Order order,
+                                                        List<String> fields, ProductSearchRequest request) {
+        List<ProductListItem> content = productRepository.findWindow(
+                spec, withIdTieBreaker(order), offset(request), request.getPageSize(), fields);
+        return new SearchResultCache.PageSlice(content, null);
+    }
+
+    /** Rows skipped before the requested page; JPA takes at most {@link Integer#MAX_VALUE}. */
+    private static long offset(ProductSearchRequest request) {
+        return (long) (request.getCurrent() - 1) * request.getPageSize();
+    }
+
+    private SearchResultCache.PageSlice fetchCursorPage(Specification<Product> spec, Sort.Order order,
+                                                        List<String> fields, ProductSearchRequest request) {
+        Specification<Product> pageSpec = spec;
+        if (StringUtils.hasText(request.getCursor())) {
+            ProductCursor cursor = ProductCursor.decode(request.getCursor());
+            if (!cursor.field().equals(order.getProperty()) || cursor.direction() != order.getDirection()) {
+                throw new BusinessException("カーソルと並び順が一致しません");
+            }
+            pageSpec = spec.and(ProductSpecification.seek(cursor));
+        }
+
+        // One extra row tells whether another page exists without counting
+        int pageSize = request.getPageSize();
+        List<ProductListItem> rows = productRepository.findWindow(
+                pageSpec, withIdTieBreaker(order), 0, pageSize + 1, fields);
+        if (rows.size() <= pageSize) {
+            return new SearchResultCache.PageSlice(rows, null);
+        }
+        List<ProductListItem> content = List.copyOf(rows.subList(0, pageSize));
+        return new SearchResultCache.PageSlice(content, ProductCursor.after(content.get(pageSize - 1), order).encode());
+    }
+
+    @Override
+    public long writeBulk(ProductSearchRequest request, ObjectMapper mapper, OutputStream outputStream)
+            throws IOException {
+        // One flush at the end instead of one per row; the generator buffers and writes in blocks
+        ObjectWriter writer = mapper.writerFor(Product.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        boolean lineDelimited = JsonFactory.FORMAT_NAME_JSON.equals(mapper.getFactory().getFormatName());
+        Specification<Product> spec = ProductSpecification.search(
+                request, keywordIndex.lookup(request.getKeyword()).orElse(null));
+
+        long count = 0;
+        try (Stream<Product> products = productRepository.streamAll(spec, Sort.by(Sort.Direction.ASC, "id"));
+             JsonGenerator generator = mapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (lineDelimited) {
+                generator.setRootValueSeparator(null);
+            }
+            Iterator<Product> it = products.iterator();
+            while (it.hasNext()) {
+                writer.writeValue(generator, it.next());
+                if (lineDelimited) {
+                    generator.writeRaw('\n');
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
     @Override
     public Product findById(Long id) {
-        return productRepository.findById(id)
-                .orElseThrow(() -> new BusinessException("商品が見つかりません: ID=" + id));
+        return productCache.get(id, productRepository::findById)
+                .orElseThrow(() -> notFound(id));
     }
 
     @Override
     @Transactional
     public Product create(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.upserted(List.of(saved.getId())));
+        return saved;
     }
 
     @Override
     @Transactional
     public Product update(Long id, Product product) {
-        Product existing = findById(id);
-        existing.setProductCode(product.getProductCode());
-        existing.setProductName(product.getProductName());
-        existing.setCategory(product.getCategory());
-        existing.setPrice(product.getPrice());
-        existing.setStockQuantity(product.getStockQuantity());
-        existing.setStatus(product.getStatus());
-        existing.setDescription(product.getDescription());
-        return productRepository.save(existing);
+        // A cached copy supplies createdAt, so a hot product is updated without reading it first
+        Product existing = productCache.getIfPresent(id)
+                .or(() -> productRepository.findById(id))
+                .orElseThrow(() -> notFound(id));
+
+        LocalDateTime now = LocalDateTime.now();
+        if (productRepository.updateFields(id, product, now) == 0) {
+            throw notFound(id);
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.upserted(List.of(id)));
+
+        return Product.builder()
+                .id(id)
+                .productCode(product.getProductCode())
+                .productName(product.getProductName())
+                .category(product.getCategory())
+                .price(product.getPrice())
+                .stockQuantity(product.getStockQuantity())
+                .status(product.getStatus())
+                .description(product.getDescription())
+                .createdAt(existing.getCreatedAt())
+                .updatedAt(now)
+                .build();
     }
 
     @Override
     @Transactional
     public void delete(Long id) {
-        Product existing = findById(id);
-        productRepository.delete(existing);
+        if (productRepository.deleteByIdReturningCount(id) == 0) {
+            throw notFound(id);
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(List.of(id)));
     }
 
-    private Sort parseSort(String sorter) {
+    private BusinessException notFound(Long id) {
+        return new BusinessException("商品が見つかりません: ID=" + id);
+    }
+
+    private long count(Specification<Product> spec, ProductSearchRequest request) {
+        return switch (request.getCountMode()) {
+            case NONE -> -1L;
+            case ESTIMATED -> productRepository.estimateCount(request);
+            case EXACT -> productRepository.count(spec);
+        };
+    }
+
+    private Sort.Order parseSort(String sorter) {
         if (!StringUtils.hasText(sorter)) {
-            return Sort.by(Sort.Direction.ASC, "id");
+            return Sort.Order.asc("id");
         }
         String[] parts = sorter.split(",");
-        if (parts.length != 2) {
-            return Sort.by(Sort.Direction.ASC, "id");
+        if (parts.length != 2 || !ProductCursor.SORTABLE_FIELDS.containsKey(parts[0])) {
+            return Sort.Order.asc("id");
         }
         Sort.Direction direction = "desc".equalsIgnoreCase(parts[1])
                 ? Sort.Direction.DESC : Sort.Direction.ASC;
-        return Sort.by(direction, parts[0]);
+        return new Sort.Order(direction, parts[0]);
+    }
+
+    /**
+     * Columns to select for the list, in response order. The id and the sort key are always
+     * included because the client and the keyset cursor need them.
+     */
+    private List<String> resolveFields(List<String> requested, Sort.Order order) {
+        List<String> names = requested == null ? List.of() : requested.stream()
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .toList();
+        for (String name : names) {
+            if (!ProductListItem.FIELDS.contains(name)) {
+                throw new BusinessException("指定できない項目です: " + name);
+            }
+        }
+        Collection<String> selected = names.isEmpty() ? ProductListItem.DEFAULT_FIELDS : names;
+        return ProductListItem.FIELDS.stream()
+                .filter(field -> selected.contains(field) || field.equals("id") || field.equals(order.getProperty()))
+                .toList();
+    }
+
+    private Sort withIdTieBreaker(Sort.Order order) {
+        if ("id".equals(order.getProperty())) {
+            return Sort.by(order);
+        }
+        return Sort.by(order, new Sort.Order(order.getDirection(), "id"));
     }
 }
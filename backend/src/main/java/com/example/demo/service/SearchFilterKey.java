@@ -0,0 +1,28 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ProductSearchRequest;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+
+/**
+ * Search filter normalized for use in cache keys, together with the product data version the
+ * cached value was computed from. Requests that only differ in blank parameters or in the scale
+ * of a price bound share one key.
+ */
+record SearchFilterKey(long version, String keyword, String category, String status,
+                       BigDecimal priceMin, BigDecimal priceMax) {
+
+    static SearchFilterKey of(long version, ProductSearchRequest request) {
+        return new SearchFilterKey(version,
+                StringUtils.hasText(request.getKeyword()) ? request.getKeyword() : null,
+                StringUtils.hasText(request.getCategory()) ? request.getCategory() : null,
+                StringUtils.hasText(request.getStatus()) ? request.getStatus() : null,
+                normalize(request.getPriceMin()),
+                normalize(request.getPriceMax()));
+    }
+
+    private static BigDecimal normalize(BigDecimal value) {
+        return value != null ? value.stripTrailingZeros() : null;
+    }
+}
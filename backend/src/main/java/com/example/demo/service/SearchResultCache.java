@@ -0,0 +1,125 @@
+package com.example.demo.service;
+
+import com.example.demo.config.CachingProperties;
+import com.example.demo.dto.CacheStatistics;
+import com.example.demo.dto.ProductFacets;
+import com.example.demo.dto.ProductListItem;
+import com.example.demo.dto.ProductSearchRequest;
+import com.example.demo.event.ProductChangeReplicatedEvent;
+import com.example.demo.event.ProductChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.data.domain.Sort;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches search pages and match counts keyed on the normalized filter. Counts are shared by all
+ * pages of the same filter. Every key carries the product data version, which is bumped after
+ * each committed product change, so entries computed before a write are never served after it.
+ */
+@Component
+public class SearchResultCache {
+
+    private final AtomicLong version = new AtomicLong();
+    private final Cache<PageKey, Timed<PageSlice>> pages;
+    private final Cache<CountKey, Timed<Long>> counts;
+    private final Cache<SearchFilterKey, Timed<ProductFacets>> facets;
+    private final AtomicLong savedPageNanos = new AtomicLong();
+    private final AtomicLong savedCountNanos = new AtomicLong();
+    private final AtomicLong savedFacetNanos = new AtomicLong();
+
+    public SearchResultCache(CachingProperties cachingProperties) {
+        CachingProperties.Search properties = cachingProperties.getSearch();
+        this.pages = Caffeine.newBuilder().maximumSize(properties.getMaxPages()).recordStats().build();
+        this.counts = Caffeine.newBuilder().maximumSize(properties.getMaxCounts()).recordStats().build();
+        this.facets = Caffeine.newBuilder().maximumSize(properties.getMaxFacets()).recordStats().build();
+    }
+
+    /** Current product data version; also used by other caches derived from product data. */
+    public long currentVersion() {
+        return version.get();
+    }
+
+    public PageSlice page(long dataVersion, ProductSearchRequest request, Sort.Order order, boolean cursorMode,
+                          List<String> fields, Supplier<PageSlice> loader) {
+        PageKey key = new PageKey(SearchFilterKey.of(dataVersion, request), order.getProperty(), order.getDirection(),
+                cursorMode ? 0 : request.getCurrent(), request.getPageSize(),
+                cursorMode ? request.getCursor() : null, fields);
+        return lookup(pages, key, loader, savedPageNanos);
+    }
+
+    public long count(long dataVersion, ProductSearchRequest request, Supplier<Long> loader) {
+        CountKey key = new CountKey(SearchFilterKey.of(dataVersion, request), request.getCountMode());
+        return lookup(counts, key, loader, savedCountNanos);
+    }
+
+    /** Facet counts depend on the filter only, so all pages and sort orders share them. */
+    public ProductFacets facets(long dataVersion, ProductSearchRequest request, Supplier<ProductFacets> loader) {
+        return lookup(facets, SearchFilterKey.of(dataVersion, request), loader, savedFacetNanos);
+    }
+
+    // After ProductKeywordIndex has refreshed the changed products
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate();
+    }
+
+    // Reads from a lagging replica may have cached results without the change in the meantime
+    @EventListener
+    public void onProductChangeReplicated(ProductChangeReplicatedEvent event) {
+        invalidate();
+    }
+
+    private void invalidate() {
+        version.incrementAndGet();
+        pages.invalidateAll();
+        counts.invalidateAll();
+        facets.invalidateAll();
+    }
+
+    public List<CacheStatistics> statistics() {
+        CacheStatistics page = CacheStatistics.of("searchPage", pages.estimatedSize(), pages.stats());
+        page.setSavedLoadMillis(savedPageNanos.get() / 1_000_000);
+        CacheStatistics count = CacheStatistics.of("searchCount", counts.estimatedSize(), counts.stats());
+        count.setSavedLoadMillis(savedCountNanos.get() / 1_000_000);
+        CacheStatistics facet = CacheStatistics.of("searchFacets", facets.estimatedSize(), facets.stats());
+        facet.setSavedLoadMillis(savedFacetNanos.get() / 1_000_000);
+        return List.of(page, count, facet);
+    }
+
+    private static <K, V> V lookup(Cache<K, Timed<V>> cache, K key, Supplier<V> loader, AtomicLong savedNanos) {
+        boolean[] loaded = new boolean[1];
+        Timed<V> entry = cache.get(key, k -> {
+            loaded[0] = true;
+            long start = System.nanoTime();
+            V value = loader.get();
+            return new Timed<>(value, System.nanoTime() - start);
+        });
+        if (!loaded[0]) {
+            savedNanos.addAndGet(entry.loadNanos());
+        }
+        return entry.value();
+    }
+
+    public record PageSlice(List<ProductListItem> content, String nextCursor) {
+    }
+
+    private record Timed<V>(V value, long loadNanos) {
+    }
+
+    private record CountKey(SearchFilterKey filter, ProductSearchRequest.CountMode countMode) {
+    }
+
+    private record PageKey(SearchFilterKey filter, String sortField, Sort.Direction direction,
+                           int current, int pageSize, String cursor, List<String> fields) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.StockAdjustmentRequest;
+import com.example.demo.dto.StockAdjustmentResult;
+
+import java.util.List;
+
+public interface StockService {
+
+    /**
+     * Adds {@code delta} to the product's stock atomically.
+     *
+     * @throws com.example.demo.exception.BusinessException if the product does not exist or the
+     * stock would become negative
+     */
+    StockAdjustmentResult adjust(Long productId, int delta);
+
+    /**
+     * Applies each adjustment independently, in request order for the same product. Rejected
+     * adjustments are reported in the result instead of failing the others.
+     */
+    List<StockAdjustmentResult> adjustAll(List<StockAdjustmentRequest> adjustments);
+}
@@ -0,0 +1,267 @@
+package com.example.demo.service;
+
+import com.example.demo.config.StockProperties;
+import com.example.demo.dto.StockAdjustmentRequest;
+import com.example.demo.dto.StockAdjustmentResult;
+import com.example.demo.event.ProductChangedEvent;
+import com.example.demo.exception.BusinessException;
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.repository.ProductStockView;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stock adjustments with group commit. Each request parks its delta in a striped accumulator and
+ * then queues for the flush lock; whoever holds the lock drains every accumulator and writes all
+ * pending deltas, netted per product, in one JDBC batch and one transaction. Without contention a
+ * request flushes only its own delta, so nothing waits on a timer. Under contention the requests
+ * that queued during a flush are written together by the next one.
+ *
+ * <p>A product's net delta is rejected as a whole if it would make the stock negative. Its
+ * deltas are then retried one by one in arrival order, so each request still gets the outcome it
+ * would have had on its own. If the batch fails, every adjustment is retried in a transaction of
+ * its own, so an error only fails the request that caused it.
+ */
+@Service
+public class StockServiceImpl implements StockService {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Stripe[] stripes;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final DistributionSummary flushSizes;
+
+    public StockServiceImpl(ProductRepository productRepository, TransactionTemplate transactionTemplate,
+                            ApplicationEventPublisher eventPublisher, StockProperties stockProperties,
+                            MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.stripes = new Stripe[Math.max(stockProperties.getStripes(), 1)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.flushSizes = DistributionSummary.builder("stock.flush.adjustments")
+                .description("Stock adjustments written together in one flush")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public StockAdjustmentResult adjust(Long productId, int delta) {
+        Adjustment adjustment = enqueue(productId, delta);
+        awaitFlush(List.of(adjustment));
+        try {
+            return success(productId, adjustment.result.join());
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    @Override
+    public List<StockAdjustmentResult> adjustAll(List<StockAdjustmentRequest> requests) {
+        List<Adjustment> adjustments = new ArrayList<>(requests.size());
+        for (StockAdjustmentRequest request : requests) {
+            adjustments.add(enqueue(request.getProductId(), request.getDelta()));
+        }
+        awaitFlush(adjustments);
+
+        List<StockAdjustmentResult> results = new ArrayList<>(adjustments.size());
+        for (Adjustment adjustment : adjustments) {
+            try {
+                results.add(success(adjustment.productId, adjustment.result.join()));
+            } catch (CompletionException e) {
+                if (!(e.getCause() instanceof BusinessException rejected)) throw e;
+                results.add(StockAdjustmentResult.builder()
+                        .productId(adjustment.productId)
+                        .success(false)
+                        .message(rejected.getMessage())
+                        .build());
+            }
+        }
+        return results;
+    }
+
+    private Adjustment enqueue(long productId, int delta) {
+        Adjustment adjustment = new Adjustment(productId, delta);
+        stripes[Math.floorMod(Long.hashCode(productId), stripes.length)].add(adjustment);
+        return adjustment;
+    }
+
+    /**
+     * Every flush drains all accumulators, so once we hold the lock one flush is enough to cover
+     * adjustments enqueued before we asked for it. Often a flush by another request already has.
+     * The change event is published after the lock is released, so the listeners do not hold up
+     * the next flush.
+     */
+    private void awaitFlush(List<Adjustment> adjustments) {
+        Flush flush = null;
+        flushLock.lock();
+        try {
+            if (!adjustments.stream().allMatch(a -> a.result.isDone())) {
+                flush = flush();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+        if (flush != null) {
+            complete(flush);
+        }
+    }
+
+    private Flush flush() {
+        // Id order keeps row locks in one order across concurrent writers
+        SortedMap<Long, List<Adjustment>> pending = new TreeMap<>();
+        for (Stripe stripe : stripes) {
+            stripe.drainTo(pending);
+        }
+        if (pending.isEmpty()) return null;
+        flushSizes.record(pending.values().stream().mapToInt(List::size).sum());
+
+        try {
+            return new Flush(pending, transactionTemplate.execute(status -> write(pending)));
+        } catch (RuntimeException e) {
+            // Retry each adjustment in its own transaction, so a failure only fails its own request
+            Written merged = new Written(new HashMap<>(), new ArrayList<>());
+            pending.forEach((productId, list) -> {
+                for (Adjustment adjustment : list) {
+                    try {
+                        Written written = transactionTemplate.execute(
+                                status -> write(new TreeMap<>(Map.of(productId, List.of(adjustment)))));
+                        merged.quantities().putAll(written.quantities());
+                        if (!written.changed().isEmpty() && !merged.changed().contains(productId)) {
+                            merged.changed().add(productId);
+                        }
+                    } catch (RuntimeException failure) {
+                        adjustment.failure = failure;
+                    }
+                }
+            });
+            return new Flush(pending, merged);
+        }
+    }
+
+    private void complete(Flush flush) {
+        Written written = flush.written();
+        try {
+            if (!written.changed().isEmpty()) {
+                eventPublisher.publishEvent(ProductChangedEvent.upserted(written.changed()));
+            }
+        } finally {
+            // The stock is written either way; other requests of this flush must not wait forever
+            flush.pending().forEach((productId, list) -> {
+                Integer quantity = written.quantities().get(productId);
+                for (Adjustment adjustment : list) {
+                    if (adjustment.failure != null) {
+                        adjustment.result.completeExceptionally(adjustment.failure);
+                    } else if (quantity == null) {
+                        adjustment.result.completeExceptionally(
+                                new BusinessException("商品が見つかりません: ID=" + productId));
+                    } else if (adjustment.rejected) {
+                        adjustment.result.completeExceptionally(
+                                new BusinessException("在庫数量が不足しています: ID=" + productId));
+                    } else {
+                        adjustment.result.complete(quantity);
+                    }
+                }
+            });
+        }
+    }
+
+    /** Applies the pending deltas and reads back the resulting stock of every product that exists. */
+    private Written write(SortedMap<Long, List<Adjustment>> pending) {
+        SortedMap<Long, Integer> netDeltas = new TreeMap<>();
+        List<Long> oneByOne = new ArrayList<>();
+        pending.forEach((productId, list) -> {
+            long net = list.stream().mapToLong(a -> a.delta).sum();
+            if (net == (int) net) {
+                netDeltas.put(productId, (int) net);
+            } else {
+                oneByOne.add(productId);
+            }
+        });
+        oneByOne.addAll(productRepository.addStock(netDeltas));
+
+        List<Long> changed = new ArrayList<>(pending.keySet());
+        for (Long productId : oneByOne) {
+            boolean anyApplied = false;
+            for (Adjustment adjustment : pending.get(productId)) {
+                adjustment.rejected = !productRepository.addStock(new TreeMap<>(Map.of(productId, adjustment.delta)))
+                        .isEmpty();
+                anyApplied |= !adjustment.rejected;
+            }
+            if (!anyApplied) {
+                changed.remove(productId);
+            }
+        }
+
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (ProductStockView view : productRepository.findStockViewsByIdIn(pending.keySet())) {
+            quantities.put(view.getId(), view.getStockQuantity());
+        }
+        changed.retainAll(quantities.keySet());
+        return new Written(quantities, changed);
+    }
+
+    private static StockAdjustmentResult success(Long productId, int quantity) {
+        return StockAdjustmentResult.builder()
+                .productId(productId)
+                .success(true)
+                .stockQuantity(quantity)
+                .build();
+    }
+
+    private static final class Adjustment {
+
+        final long productId;
+        final int delta;
+        final CompletableFuture<Integer> result = new CompletableFuture<>();
+        /** Set by the flushing thread before {@link #result} completes. */
+        boolean rejected;
+        RuntimeException failure;
+
+        Adjustment(long productId, int delta) {
+            this.productId = productId;
+            this.delta = delta;
+        }
+    }
+
+    private record Written(Map<Long, Integer> quantities, List<Long> changed) {
+    }
+
+    private record Flush(SortedMap<Long, List<Adjustment>> pending, Written written) {
+    }
+
+    /** Pending adjustments of the products that hash to this stripe, in arrival order. */
+    private static final class Stripe {
+
+        private Map<Long, List<Adjustment>> pending = new HashMap<>();
+
+        synchronized void add(Adjustment adjustment) {
+            pending.computeIfAbsent(adjustment.productId, id -> new ArrayList<>(2)).add(adjustment);
+        }
+
+        void drainTo(Map<Long, List<Adjustment>> target) {
+            Map<Long, List<Adjustment>> drained;
+            synchronized (this) {
+                drained = pending;
+                pending = new HashMap<>();
+            }
+            // A product always hashes to the same stripe, so there is nothing to merge
+            target.putAll(drained);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.demo.service;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Event-driven reader for the first sheet of an .xlsx file. Rows are parsed with SAX and handed
+ * to the callback one at a time, so memory stays bounded regardless of the sheet size.
+ * The {@link XlsxRow} instance is reused between callbacks.
+ */
+public final class StreamingXlsxReader {
+
+    private StreamingXlsxReader() {
+    }
+
+    public static void read(Path file, Consumer<XlsxRow> rowHandler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            // Phonetic (furigana) runs are excluded so Japanese cells read as displayed
+            SharedStrings sharedStrings = new ReadOnlySharedStringsTable(pkg, false);
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) return;
+
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new SheetHandler(sharedStrings, rowHandler));
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Invalid xlsx file", e);
+        }
+    }
+
+    private static class SheetHandler extends DefaultHandler {
+
+        private final SharedStrings sharedStrings;
+        private final Consumer<XlsxRow> rowHandler;
+        private final XlsxRow row = new XlsxRow();
+        private final StringBuilder text = new StringBuilder();
+
+        private int rowNum = -1;
+        private int cellIndex = -1;
+        private String cellType;
+        private boolean inValue;
+        private boolean inInlineText;
+        private boolean inPhonetic;
+        private boolean hasValue;
+
+        SheetHandler(SharedStrings sharedStrings, Consumer<XlsxRow> rowHandler) {
+            this.sharedStrings = sharedStrings;
+            this.rowHandler = rowHandler;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attrs) {
+            switch (localName) {
+                case "row" -> {
+                    String r = attrs.getValue("r");
+                    rowNum = r != null ? Integer.parseInt(r) - 1 : rowNum + 1;
+                    cellIndex = -1;
+                    row.reset(rowNum);
+                }
+                case "c" -> {
+                    String ref = attrs.getValue("r");
+                    cellIndex = ref != null ? columnIndex(ref) : cellIndex + 1;
+                    cellType = attrs.getValue("t");
+                    hasValue = false;
+                    text.setLength(0);
+                }
+                case "v" -> {
+                    inValue = true;
+                    hasValue = true;
+                }
+                case "rPh" -> inPhonetic = true;
+                case "t" -> {
+                    if ("inlineStr".equals(cellType) && !inPhonetic) {
+                        inInlineText = true;
+                        hasValue = true;
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v" -> inValue = false;
+                case "t" -> inInlineText = false;
+                case "rPh" -> inPhonetic = false;
+                case "c" -> {
+                    if (hasValue) storeCell();
+                }
+                case "row" -> rowHandler.accept(row);
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inValue || inInlineText) {
+                text.append(ch, start, length);
+            }
+        }
+
+        private void storeCell() {
+            String raw = text.toString();
+            if (cellType == null || "n".equals(cellType)) {
+                row.set(cellIndex, raw, true);
+                return;
+            }
+            switch (cellType) {
+                case "s" -> row.set(cellIndex,
+                        sharedStrings.getItemAt(Integer.parseInt(raw.trim())).getString(), false);
+                case "b" -> row.set(cellIndex, "1".equals(raw) ? "TRUE" : "FALSE", false);
+                default -> row.set(cellIndex, raw, false);
+            }
+        }
+
+        private static int columnIndex(String cellRef) {
+            int index = 0;
+            for (int i = 0; i < cellRef.length(); i++) {
+                char c = cellRef.charAt(i);
+                if (c < 'A' || c > 'Z') break;
+                index = index * 26 + (c - 'A' + 1);
+            }
+            return index - 1;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.demo.service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * One row read by {@link StreamingXlsxReader}. Cell values are kept as raw sheet text plus a
+ * numeric flag, and converted with the same rules the DOM-based import used.
+ */
+public class XlsxRow {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private int rowNum;
+    private String[] values = new String[INITIAL_CAPACITY];
+    private boolean[] numeric = new boolean[INITIAL_CAPACITY];
+    private int lastCell = -1;
+
+    /** 0-based row index, as in POI's {@code Row#getRowNum()}. */
+    public int getRowNum() {
+        return rowNum;
+    }
+
+    public String getString(int cellIndex) {
+        String raw = raw(cellIndex);
+        if (raw == null) return null;
+        if (numeric[cellIndex]) {
+            try {
+                return String.valueOf((long) Double.parseDouble(raw));
+            } catch (NumberFormatException e) {
+                return raw.trim();
+            }
+        }
+        return raw.trim();
+    }
+
+    public BigDecimal getDecimal(int cellIndex) {
+        String raw = raw(cellIndex);
+        if (raw == null) return null;
+        try {
+            return numeric[cellIndex]
+                    ? BigDecimal.valueOf(Double.parseDouble(raw))
+                    : new BigDecimal(raw.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public Integer getInteger(int cellIndex) {
+        String raw = raw(cellIndex);
+        if (raw == null) return null;
+        try {
+            return numeric[cellIndex]
+                    ? (int) Double.parseDouble(raw)
+                    : Integer.parseInt(raw.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** Independent copy of this row, for handing it to another thread while the reader moves on. */
+    public XlsxRow copy() {
+        XlsxRow copy = new XlsxRow();
+        int size = Math.max(lastCell + 1, 1);
+        copy.rowNum = rowNum;
+        copy.values = Arrays.copyOf(values, size);
+        copy.numeric = Arrays.copyOf(numeric, size);
+        copy.lastCell = lastCell;
+        return copy;
+    }
+
+    private String raw(int cellIndex) {
+        if (cellIndex > lastCell) return null;
+        String raw = values[cellIndex];
+        return raw == null || raw.isEmpty() ? null : raw;
+    }
+
+    void reset(int rowNum) {
+        this.rowNum = rowNum;
+        Arrays.fill(values, 0, lastCell + 1, null);
+        Arrays.fill(numeric, 0, lastCell + 1, false);
+        lastCell = -1;
+    }
+
+    void set(int cellIndex, String value, boolean isNumeric) {
+        if (cellIndex >= values.length) {
+            int capacity = Math.max(values.length * 2, cellIndex + 1);
+            values = Arrays.copyOf(values, capacity);
+            numeric = Arrays.copyOf(numeric, capacity);
+        }
+        values[cellIndex] = value;
+        numeric[cellIndex] = isNumeric;
+        lastCell = Math.max(lastCell, cellIndex);
+    }
+}
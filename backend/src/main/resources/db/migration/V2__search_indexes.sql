@@ -0,0 +1,27 @@
+-- 検索条件・並び順の組み合わせに合わせた複合インデックス
+-- 並び替え用インデックスは id を含め、(ソートキー, id) の順序とカーソル条件をそのまま使えるようにする
+-- 稼働中の products への書き込みを止めないよう CONCURRENTLY で作成するため、トランザクション外で実行する
+-- （V2__search_indexes.sql.conf）。途中で失敗した場合は INVALID のインデックスが残るので、削除してから再実行する
+
+-- 部分一致検索（LIKE '%キーワード%'）用のトライグラム索引
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- 絞り込み: カテゴリ + ステータス + 価格範囲 / ステータス + 価格範囲
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_category_status_price ON products(category, status, price);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_status_price          ON products(status, price);
+
+-- 並び替え（商品コードは UNIQUE 制約のインデックスを使う）
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_price_id       ON products(price, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_stock_id       ON products(stock_quantity, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_name_id        ON products(product_name, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_created_at_id  ON products(created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_updated_at_id  ON products(updated_at, id);
+
+-- キーワード検索
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_name_trgm ON products USING gin (product_name gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_products_code_trgm ON products USING gin (product_code gin_trgm_ops);
+
+-- 上の複合インデックスの先頭列で代替できる単一列インデックス
+DROP INDEX CONCURRENTLY IF EXISTS idx_products_category;
+DROP INDEX CONCURRENTLY IF EXISTS idx_products_status;
+DROP INDEX CONCURRENTLY IF EXISTS idx_products_name;
@@ -0,0 +1,5 @@
+-- 取り込み時の差分検出用ハッシュ（商品コード以外の業務項目から、アプリケーションで計算）
+-- 既存行は NULL（未計算）とし、次回の取り込みで書き込まれた時点で設定される
+ALTER TABLE products ADD COLUMN content_hash BIGINT;
+
+COMMENT ON COLUMN products.content_hash IS '業務項目のハッシュ（取り込み時の差分検出用）';
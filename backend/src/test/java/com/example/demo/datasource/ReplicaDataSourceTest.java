@@ -0,0 +1,119 @@
+package com.example.demo.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes through {@link ReplicaDataSource} the way the application does, with a second embedded
+ * PostgreSQL as the replica. A standalone database counts as caught up, so the lag check passes.
+ */
+class ReplicaDataSourceTest {
+
+    private static EmbeddedPostgres primaryServer;
+    private static EmbeddedPostgres replicaServer;
+    private static HikariDataSource primaryPool;
+
+    private ReplicaDataSource replicaDataSource;
+
+    @BeforeAll
+    static void startServers() throws IOException {
+        primaryServer = EmbeddedPostgres.start();
+        replicaServer = EmbeddedPostgres.start();
+        primaryPool = new HikariDataSource();
+        primaryPool.setDataSource(primaryServer.getPostgresDatabase());
+    }
+
+    @AfterAll
+    static void stopServers() throws IOException {
+        primaryPool.close();
+        replicaServer.close();
+        primaryServer.close();
+    }
+
+    @AfterEach
+    void closeReplicas() {
+        ReplicaRouting.clear();
+        replicaDataSource.destroy();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaAndOthersThePrimary() throws Exception {
+        route(replicaServer.getPort());
+
+        assertThat(serverPort(true)).isEqualTo(replicaServer.getPort());
+        assertThat(serverPort(false)).isEqualTo(primaryServer.getPort());
+    }
+
+    @Test
+    void pinnedThreadsStayOnThePrimary() throws Exception {
+        route(replicaServer.getPort());
+
+        ReplicaRouting.pinToPrimary();
+        assertThat(serverPort(true)).isEqualTo(primaryServer.getPort());
+    }
+
+    @Test
+    void unreachableReplicasFallBackToThePrimary() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        route(closedPort, replicaServer.getPort());
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(serverPort(true)).isEqualTo(replicaServer.getPort());
+        }
+        assertThat(replicaDataSource.statuses())
+                .extracting(ReplicaDataSource.ReplicaStatus::healthy)
+                .containsExactly(false, true);
+    }
+
+    private void route(int... replicaPorts) throws InterruptedException {
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (int port : replicaPorts) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + (pools.size() + 1));
+            config.setJdbcUrl("jdbc:postgresql://localhost:" + port + "/postgres");
+            config.setUsername("postgres");
+            config.setReadOnly(true);
+            config.setConnectionTimeout(250);
+            config.setInitializationFailTimeout(-1);
+            pools.add(new HikariDataSource(config));
+        }
+        replicaDataSource = new ReplicaDataSource(primaryPool, pools, Duration.ofMillis(100), Duration.ofSeconds(10),
+                new SimpleMeterRegistry());
+        // The first health check runs right away; wait for it to mark the reachable replicas
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (replicaDataSource.statuses().stream().anyMatch(status -> "not checked yet".equals(status.problem()))
+                && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    private int serverPort(boolean readOnly) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryPool);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT current_setting('port')::int", Integer.class));
+    }
+}
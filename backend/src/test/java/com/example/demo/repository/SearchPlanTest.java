@@ -0,0 +1,327 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.ProductListItem;
+import com.example.demo.dto.ProductSearchRequest;
+import com.example.demo.entity.Product;
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plans every list and count query the search specification can produce against the migrated
+ * schema on a seeded PostgreSQL, and fails when any of them scans the whole products table. Guards
+ * the indexes in {@code db/migration} against both schema changes and specification changes.
+ */
+@SpringBootTest(properties = "app.search.keyword-index.enabled=false")
+@DirtiesContext
+class SearchPlanTest {
+
+    private static final int ROWS = 200_000;
+    private static final int PAGE_SIZE = 20;
+    /** Share of the table above which a count reads it faster in full than through an index. */
+    private static final double WHOLE_TABLE_SHARE = 0.2;
+    private static final Pattern SEQ_SCAN = Pattern.compile("\"Node Type\":\\s*\"Seq Scan\"");
+
+    private static boolean seeded;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlanCapture planCapture;
+
+    @TestConfiguration
+    static class EmbeddedDatabase {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws IOException {
+            return EmbeddedPostgres.start();
+        }
+
+        @Bean
+        PlanCapture planCapture() {
+            return new PlanCapture();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres embeddedPostgres, PlanCapture planCapture) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setDataSource(planCapture.wrap(embeddedPostgres.getPostgresDatabase()));
+            return pool;
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        if (seeded) return;
+        // Skewed like real data: a few large categories, mostly active, mostly cheap
+        jdbcTemplate.execute("""
+                SELECT setseed(0.42);
+                INSERT INTO products (product_code, product_name, category, price, stock_quantity, status,
+                                      created_at, updated_at)
+                SELECT 'PRD-' || lpad(i::text, 7, '0'),
+                       '商品' || substr(md5(i::text), 1, 8),
+                       (ARRAY['電子機器', '食品', '衣類', '書籍', '日用品'])
+                           [1 + width_bucket(random(), ARRAY[0.4, 0.7, 0.85, 0.95])],
+                       round((random() * random() * 100000)::numeric, 2),
+                       (random() * 1000)::int,
+                       CASE WHEN i %% 20 = 0 THEN 'DISCONTINUED' WHEN i %% 20 < 4 THEN 'INACTIVE' ELSE 'ACTIVE' END,
+                       now() - random() * interval '365 days',
+                       now() - random() * interval '30 days'
+                  FROM generate_series(1, %d) i
+                """.formatted(ROWS));
+        jdbcTemplate.execute("VACUUM ANALYZE products");
+        seeded = true;
+    }
+
+    @Test
+    void searchQueriesDoNotScanTheWholeTable() {
+        List<Long> someIds = jdbcTemplate.queryForList(
+                "SELECT id FROM products ORDER BY md5(id::text) LIMIT 50", Long.class);
+        List<String> violations = new ArrayList<>();
+        int planned = 0;
+
+        for (KeywordFilter keyword : KeywordFilter.values()) {
+            for (String category : new String[]{null, "電子機器", "日用品"}) {
+                for (String status : new String[]{null, "ACTIVE", "DISCONTINUED"}) {
+                    for (PriceFilter price : PriceFilter.values()) {
+                        for (String field : ProductCursor.SORTABLE_FIELDS.keySet()) {
+                            for (Sort.Direction direction : Sort.Direction.values()) {
+                                ProductSearchRequest request = new ProductSearchRequest();
+                                request.setKeyword(keyword.keyword);
+                                request.setCategory(category);
+                                request.setStatus(status);
+                                request.setPriceMin(price.min);
+                                request.setPriceMax(price.max);
+                                Collection<Long> keywordIds = keyword == KeywordFilter.INDEXED ? someIds : null;
+                                String description = "keyword=%s category=%s status=%s price=%s sort=%s,%s"
+                                        .formatted(keyword, category, status, price, field, direction);
+                                planned += checkPages(request, keywordIds, new Sort.Order(direction, field),
+                                        description, violations);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        assertThat(planned).isGreaterThan(KeywordFilter.values().length * 3 * 3 * PriceFilter.values().length);
+        assertThat(violations)
+                .withFailMessage(() -> violations.size() + " search plans scan the whole products table:\n"
+                        + String.join("\n", violations.subList(0, Math.min(violations.size(), 20))))
+                .isEmpty();
+    }
+
+    @Test
+    void countQueriesDoNotScanTheWholeTable() {
+        List<Long> someIds = jdbcTemplate.queryForList(
+                "SELECT id FROM products ORDER BY md5(id::text) LIMIT 50", Long.class);
+        List<String> violations = new ArrayList<>();
+        List<BigDecimal> priceBounds = List.of(new BigDecimal("1000"), new BigDecimal("5000"), new BigDecimal("10000"));
+
+        for (KeywordFilter keyword : KeywordFilter.values()) {
+            for (String category : new String[]{null, "電子機器", "日用品"}) {
+                for (String status : new String[]{null, "ACTIVE", "DISCONTINUED"}) {
+                    for (PriceFilter price : PriceFilter.values()) {
+                        ProductSearchRequest request = new ProductSearchRequest();
+                        request.setKeyword(keyword.keyword);
+                        request.setCategory(category);
+                        request.setStatus(status);
+                        request.setPriceMin(price.min);
+                        request.setPriceMax(price.max);
+                        Collection<Long> keywordIds = keyword == KeywordFilter.INDEXED ? someIds : null;
+                        String description = "keyword=%s category=%s status=%s price=%s"
+                                .formatted(keyword, category, status, price);
+                        Specification<Product> spec = ProductSpecification.search(request, keywordIds);
+                        long matches = sum(explain(() -> productRepository.countByCategory(spec),
+                                description + " count=category", violations,
+                                counts -> sum(counts.values()) > ROWS * WHOLE_TABLE_SHARE).values());
+                        // Facets aggregate every keyword match, at least as many rows as the filtered count
+                        explain(() -> productRepository.countFacets(request, keywordIds, priceBounds),
+                                description + " count=facets", violations,
+                                facets -> matches > ROWS * WHOLE_TABLE_SHARE);
+                    }
+                }
+            }
+        }
+
+        assertThat(violations)
+                .withFailMessage(() -> violations.size() + " count plans scan the whole products table:\n"
+                        + String.join("\n", violations.subList(0, Math.min(violations.size(), 20))))
+                .isEmpty();
+    }
+
+    /** Plans the first page and, when there is one, the keyset page after it. */
+    private int checkPages(ProductSearchRequest request, Collection<Long> keywordIds, Sort.Order order,
+                           String description, List<String> violations) {
+        Specification<Product> spec = ProductSpecification.search(request, keywordIds);
+        Sort sort = "id".equals(order.getProperty())
+                ? Sort.by(order)
+                : Sort.by(order, new Sort.Order(order.getDirection(), "id"));
+        List<String> fields = ProductListItem.FIELDS.stream()
+                .filter(f -> ProductListItem.DEFAULT_FIELDS.contains(f) || f.equals(order.getProperty()))
+                .toList();
+
+        List<ProductListItem> first = explain(() -> productRepository.findWindow(spec, sort, 0, PAGE_SIZE, fields),
+                description + " page=first", violations);
+        if (first.isEmpty()) {
+            return 1;
+        }
+        ProductCursor cursor = ProductCursor.after(first.get(first.size() - 1), order);
+        explain(() -> productRepository.findWindow(spec.and(ProductSpecification.seek(cursor)), sort, 0,
+                PAGE_SIZE + 1, fields), description + " page=next", violations);
+        return 2;
+    }
+
+    private <T> T explain(Supplier<T> query, String description, List<String> violations) {
+        return explain(query, description, violations, result -> false);
+    }
+
+    /**
+     * @param wholeTableExpected whether the result covers so much of the table that reading all of
+     *                           it is the cheapest plan
+     */
+    private <T> T explain(Supplier<T> query, String description, List<String> violations,
+                          Predicate<T> wholeTableExpected) {
+        planCapture.plans.clear();
+        T result = query.get();
+        assertThat(planCapture.plans).as(description).hasSize(1);
+        String plan = planCapture.plans.get(0);
+        if (SEQ_SCAN.matcher(plan).find() && !wholeTableExpected.test(result)) {
+            violations.add(description + "\n" + plan);
+        }
+        return result;
+    }
+
+    private static long sum(Collection<Long> counts) {
+        return counts.stream().mapToLong(Long::longValue).sum();
+    }
+
+    private enum KeywordFilter {
+        NONE(null),
+        /** Keyword index unavailable: LIKE on name and code. */
+        LIKE("a3f"),
+        /** Keyword resolved to ids by the keyword index. */
+        INDEXED("a3f");
+
+        final String keyword;
+
+        KeywordFilter(String keyword) {
+            this.keyword = keyword;
+        }
+    }
+
+    private enum PriceFilter {
+        NONE(null, null),
+        MIN(new BigDecimal("50000"), null),
+        MAX(null, new BigDecimal("1000")),
+        RANGE(new BigDecimal("1000"), new BigDecimal("5000"));
+
+        final BigDecimal min;
+        final BigDecimal max;
+
+        PriceFilter(BigDecimal min, BigDecimal max) {
+            this.min = min;
+            this.max = max;
+        }
+    }
+
+    /**
+     * Wraps a data source so that every query on products is first run as {@code EXPLAIN} on the
+     * same connection with the same parameters, and the JSON plan recorded.
+     */
+    static class PlanCapture {
+
+        final List<String> plans = new ArrayList<>();
+
+        DataSource wrap(DataSource target) {
+            return proxy(DataSource.class, (proxy, method, args) -> {
+                Object result = invoke(target, method, args);
+                return result instanceof Connection connection ? wrap(connection) : result;
+            });
+        }
+
+        private Connection wrap(Connection target) {
+            return proxy(Connection.class, (proxy, method, args) -> {
+                Object result = invoke(target, method, args);
+                if (method.getName().equals("prepareStatement") && args[0] instanceof String sql
+                        && sql.toLowerCase(Locale.ROOT).startsWith("select")
+                        && sql.toLowerCase(Locale.ROOT).contains(" from products ")) {
+                    return wrap(target, sql, (PreparedStatement) result);
+                }
+                return result;
+            });
+        }
+
+        private PreparedStatement wrap(Connection connection, String sql, PreparedStatement target) {
+            List<Object[]> bindings = new ArrayList<>();
+            List<Method> setters = new ArrayList<>();
+            return proxy(PreparedStatement.class, (proxy, method, args) -> {
+                if (method.getName().startsWith("set") && args != null && args.length >= 2
+                        && args[0] instanceof Integer) {
+                    setters.add(method);
+                    bindings.add(args);
+                } else if (method.getName().equals("executeQuery") && args == null) {
+                    try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + sql)) {
+                        for (int i = 0; i < setters.size(); i++) {
+                            invoke(explain, setters.get(i), bindings.get(i));
+                        }
+                        try (ResultSet plan = explain.executeQuery()) {
+                            plan.next();
+                            plans.add(plan.getString(1));
+                        }
+                    }
+                }
+                return invoke(target, method, args);
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+            return (T) Proxy.newProxyInstance(SearchPlanTest.class.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws SQLException {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause() instanceof SQLException cause ? cause : new SQLException(e.getCause());
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
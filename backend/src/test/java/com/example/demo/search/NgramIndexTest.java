@@ -0,0 +1,59 @@
+package com.example.demo.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NgramIndexTest {
+
+    @Test
+    void matchesSubstringsOfAnyField() {
+        NgramIndex index = new NgramIndex();
+        index.put(1, "ワイヤレスイヤホン Lite", "PRD-0001");
+        index.put(2, "ポータブルスピーカー Pro", "PRD-0002");
+        index.put(3, "国産緑茶 セット", "FD-0003");
+
+        assertThat(index.search("イヤホン", 100)).contains(List.of(1L));
+        assertThat(index.search("PRD-", 100)).contains(List.of(1L, 2L));
+        assertThat(index.search("緑茶", 100)).contains(List.of(3L));
+        assertThat(index.search("カメラ", 100)).contains(List.of());
+    }
+
+    @Test
+    void verifiesCaseLikeSqlLike() {
+        NgramIndex index = new NgramIndex();
+        index.put(1, "Smart Mouse", "ABC-1");
+
+        assertThat(index.search("Mouse", 100)).contains(List.of(1L));
+        assertThat(index.search("mouse", 100)).contains(List.of());
+        assertThat(index.search("ＡＢＣ", 100)).contains(List.of());
+    }
+
+    @Test
+    void updatesAndRemovesDocuments() {
+        NgramIndex index = new NgramIndex();
+        index.put(5, "旧商品名", "OLD-5");
+        index.put(5, "新商品名", "NEW-5");
+
+        assertThat(index.search("旧商品", 100)).contains(List.of());
+        assertThat(index.search("新商品", 100)).contains(List.of(5L));
+
+        index.remove(5);
+        assertThat(index.search("新商品", 100)).contains(List.of());
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void declinesShortKeywordsAndOversizedResults() {
+        NgramIndex index = new NgramIndex();
+        for (long id = 10; id > 0; id--) {
+            index.put(id, "商品" + id, "C-" + id);
+        }
+
+        assertThat(index.search("商", 100)).isEmpty();
+        assertThat(index.search("商品", 5)).isEmpty();
+        assertThat(index.search("商品", 10).orElseThrow()).hasSize(10).startsWith(1L, 2L);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DelimitedReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsBackWhatTheWriterProduces() throws Exception {
+        Path file = tempDir.resolve("products.csv");
+        try (OutputStream out = Files.newOutputStream(file); DelimitedWriter writer = new DelimitedWriter(out, ',')) {
+            writer.writeBom();
+            writer.field("商品コード");
+            writer.field("商品名");
+            writer.endRow();
+            for (int i = 0; i < 5_000; i++) {
+                writer.field("PRD-" + i);
+                writer.field(i % 2 == 0 ? "カンマ, \"引用\"\n改行 😀" : "普通の名前");
+                writer.field(new BigDecimal("1980.50"));
+                writer.field(i);
+                writer.field((String) null);
+                writer.endRow();
+            }
+        }
+
+        List<String> names = new ArrayList<>();
+        DelimitedReader.read(file, ',', row -> {
+            if (row.getRowNum() == 0) {
+                assertThat(row.getString(0)).isEqualTo("商品コード");
+                return;
+            }
+            int i = row.getRowNum() - 1;
+            assertThat(row.getString(0)).isEqualTo("PRD-" + i);
+            assertThat(row.getDecimal(2)).isEqualByComparingTo("1980.5");
+            assertThat(row.getInteger(3)).isEqualTo(i);
+            assertThat(row.getString(4)).isNull();
+            names.add(row.getString(1));
+        });
+
+        assertThat(names).hasSize(5_000);
+        assertThat(names.get(0)).isEqualTo("カンマ, \"引用\"\n改行 😀");
+        assertThat(names.get(1)).isEqualTo("普通の名前");
+    }
+
+    @Test
+    void handlesTabsLfLineEndsAndBlankLines() throws Exception {
+        Path file = tempDir.resolve("products.tsv");
+        Files.writeString(file, "code\tname\n\nA-1\t名前\n\"B-2\"\t\"a\tb\"", StandardCharsets.UTF_8);
+
+        List<String> rows = new ArrayList<>();
+        DelimitedReader.read(file, '\t', row -> rows.add(row.getRowNum() + ":" + row.getString(0) + "|" + row.getString(1)));
+
+        assertThat(rows).containsExactly("0:code|name", "1:A-1|名前", "2:B-2|a\tb");
+    }
+
+    @Test
+    void rejectsFilesThatAreNotUtf8() throws Exception {
+        Path file = tempDir.resolve("sjis.csv");
+        Files.write(file, "商品コード,商品名".getBytes("Shift_JIS"));
+
+        assertThatThrownBy(() -> DelimitedReader.read(file, ',', row -> { }))
+                .isInstanceOf(BusinessException.class);
+    }
+}
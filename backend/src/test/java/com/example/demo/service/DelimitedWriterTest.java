@@ -0,0 +1,62 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DelimitedWriterTest {
+
+    private static final List<String> FORMULA_LIKE = List.of(
+            "=HYPERLINK(\"http://example.com\")", "+1+1", "-2+3", "@SUM(A1)", "'=already quoted", "''-1");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void prefixesFormulaLikeTextButNotNumbers() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DelimitedWriter writer = new DelimitedWriter(bytes, ',')) {
+            writer.field("=1+2");
+            writer.field("-10");
+            writer.field("@a,b");
+            writer.field("\tindented");
+            writer.field("a=b");
+            writer.field("'plain");
+            writer.field(-10);
+            writer.field(new BigDecimal("-1.50"));
+            writer.endRow();
+        }
+
+        assertThat(bytes.toString(StandardCharsets.UTF_8))
+                .isEqualTo("'=1+2,'-10,\"'@a,b\",'\tindented,a=b,'plain,-10,-1.50\r\n");
+    }
+
+    @Test
+    void readerRemovesThePrefixAgain() throws Exception {
+        Path file = tempDir.resolve("products.csv");
+        try (OutputStream out = Files.newOutputStream(file); DelimitedWriter writer = new DelimitedWriter(out, ',')) {
+            for (String value : FORMULA_LIKE) {
+                writer.field(value);
+                writer.field("'plain");
+                writer.endRow();
+            }
+        }
+
+        List<String> values = new ArrayList<>();
+        DelimitedReader.read(file, ',', row -> {
+            values.add(row.getString(0));
+            assertThat(row.getString(1)).isEqualTo("'plain");
+        });
+        assertThat(values).isEqualTo(FORMULA_LIKE);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.service;
+
+import com.example.demo.config.ImportProperties;
+import com.example.demo.dto.ImportError;
+import com.example.demo.entity.Product;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImportPipelineTest {
+
+    private static final int ROWS = 1_000;
+
+    @TempDir
+    Path tempDir;
+
+    private Path file;
+    private ImportPipeline pipeline;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = tempDir.resolve("import.xlsx");
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100); OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet();
+            sheet.createRow(0).createCell(0).setCellValue("商品コード");
+            for (int i = 1; i <= ROWS; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue("PRD-" + i);
+                row.createCell(1).setCellValue("商品" + i);
+                row.createCell(2).setCellValue("食品");
+                row.createCell(3).setCellValue(100);
+                row.createCell(4).setCellValue(i);
+                row.createCell(5).setCellValue(i % 10 == 0 ? "UNKNOWN" : "ACTIVE");
+            }
+            workbook.write(out);
+        }
+
+        ImportProperties.Pipeline settings = new ImportProperties.Pipeline();
+        settings.setBatchSize(64);
+        settings.setWorkers(4);
+        settings.setQueueCapacity(2);
+        pipeline = new ImportPipeline(new ProductRowValidator(Set.of("食品")), settings);
+    }
+
+    @Test
+    void deliversRowsInFileOrderWithOriginalRowNumbers() throws Exception {
+        ImportProgress progress = new ImportProgress(1000);
+        List<String> codes = new ArrayList<>();
+        List<ImportError> errors = new ArrayList<>();
+
+        pipeline.run(file, progress, batch -> {
+            batch.validRows().stream().map(Product::getProductCode).forEach(codes::add);
+            errors.addAll(batch.errors());
+        });
+
+        assertThat(progress.getTotalRows()).isEqualTo(ROWS);
+        assertThat(codes).hasSize(900).startsWith("PRD-1", "PRD-2").endsWith("PRD-999");
+        assertThat(errors).hasSize(100);
+        assertThat(errors).extracting(ImportError::getRow).startsWith(11, 21).endsWith(1001).isSorted();
+    }
+
+    @Test
+    void stopsReadingWhenConsumerFails() {
+        ImportProgress progress = new ImportProgress(1000);
+
+        assertThatThrownBy(() -> pipeline.run(file, progress, batch -> {
+            throw new IllegalStateException("write failed");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("write failed");
+        assertThat(progress.getTotalRows()).isLessThan(ROWS);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ImportError;
+import com.example.demo.dto.ImportResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImportProgressTest {
+
+    @Test
+    void keepsFirstErrorsButCountsAll() {
+        ImportProgress progress = new ImportProgress(5);
+
+        progress.addErrors(errors(1, 3));
+        progress.addErrors(errors(4, 7));
+        progress.addErrors(errors(8, 9));
+
+        assertThat(progress.getErrorCount()).isEqualTo(9);
+        assertThat(progress.getErrors()).extracting(ImportError::getRow).containsExactly(1, 2, 3, 4, 5);
+
+        ImportResult result = progress.toResult(false);
+        assertThat(result.getErrorCount()).isEqualTo(9);
+        assertThat(result.getErrors()).hasSize(5);
+    }
+
+    private static List<ImportError> errors(int fromRow, int toRow) {
+        return IntStream.rangeClosed(fromRow, toRow)
+                .mapToObj(row -> new ImportError(row, "price", "単価は0以上の数値を指定してください"))
+                .toList();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ImportError;
+import com.example.demo.entity.Product;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductRowValidatorTest {
+
+    private final ProductRowValidator validator = new ProductRowValidator(Set.of("電子機器", "食品"));
+
+    @Test
+    void acceptsValidRow() {
+        assertThat(validator.validate(2, validProduct())).isEmpty();
+    }
+
+    @Test
+    void reportsEveryInvalidFieldWithRowNumber() {
+        Product product = validProduct();
+        product.setProductCode("PRD_0001");
+        product.setCategory("家具");
+        product.setPrice(new BigDecimal("-1"));
+        product.setStockQuantity(null);
+        product.setStatus("active");
+
+        assertThat(validator.validate(7, product))
+                .extracting(ImportError::getField)
+                .containsExactly("商品コード", "カテゴリ", "単価", "在庫数量", "ステータス");
+        assertThat(validator.validate(7, product)).allSatisfy(e -> assertThat(e.getRow()).isEqualTo(7));
+    }
+
+    private static Product validProduct() {
+        return Product.builder()
+                .productCode("PRD-0001")
+                .productName("ワイヤレスマウス")
+                .category("電子機器")
+                .price(new BigDecimal("3980"))
+                .stockQuantity(150)
+                .status("ACTIVE")
+                .build();
+    }
+}
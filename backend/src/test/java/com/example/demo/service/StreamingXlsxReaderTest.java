@@ -0,0 +1,78 @@
+package com.example.demo.service;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingXlsxReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsSharedStringsAndNumericCells() throws Exception {
+        Path file = tempDir.resolve("shared.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet();
+            sheet.createRow(0).createCell(0).setCellValue("商品コード");
+            Row row = sheet.createRow(2);
+            row.createCell(0).setCellValue(" PRD-0001 ");
+            row.createCell(3).setCellValue(3980.5);
+            row.createCell(4).setCellValue(150);
+            row.createCell(5).setCellValue("ACTIVE");
+            workbook.write(out);
+        }
+
+        List<String> seen = new ArrayList<>();
+        StreamingXlsxReader.read(file, r -> {
+            if (r.getRowNum() != 2) return;
+            assertThat(r.getString(0)).isEqualTo("PRD-0001");
+            assertThat(r.getString(1)).isNull();
+            assertThat(r.getDecimal(3)).isEqualByComparingTo(new BigDecimal("3980.5"));
+            assertThat(r.getInteger(4)).isEqualTo(150);
+            assertThat(r.getString(5)).isEqualTo("ACTIVE");
+            assertThat(r.getString(9)).isNull();
+            seen.add(r.getString(0));
+        });
+
+        assertThat(seen).containsExactly("PRD-0001");
+    }
+
+    @Test
+    void readsInlineStringsWrittenByStreamingExport() throws Exception {
+        Path file = tempDir.resolve("inline.xlsx");
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(10); OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet();
+            for (int i = 0; i < 50; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue("PRD-" + i);
+                row.createCell(1).setCellValue("商品" + i);
+                row.createCell(4).setCellValue(i);
+            }
+            workbook.write(out);
+        }
+
+        List<Integer> rowNums = new ArrayList<>();
+        StreamingXlsxReader.read(file, r -> {
+            assertThat(r.getString(0)).isEqualTo("PRD-" + r.getRowNum());
+            assertThat(r.getString(1)).isEqualTo("商品" + r.getRowNum());
+            assertThat(r.getInteger(4)).isEqualTo(r.getRowNum());
+            assertThat(r.getString(4)).isEqualTo(String.valueOf(r.getRowNum()));
+            rowNums.add(r.getRowNum());
+        });
+
+        assertThat(rowNums).hasSize(50).startsWith(0, 1, 2).endsWith(49);
+    }
+}
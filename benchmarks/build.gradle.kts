@@ -0,0 +1,54 @@
+plugins {
+    java
+}
+
+group = "com.example"
+version = "0.0.1-SNAPSHOT"
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_21
+    targetCompatibility = JavaVersion.VERSION_21
+}
+
+repositories {
+    mavenCentral()
+}
+
+val jmhVersion = "1.37"
+
+dependencies {
+    implementation(platform("org.springframework.boot:spring-boot-dependencies:3.4.3"))
+    implementation("com.example:demo-product-app:0.0.1-SNAPSHOT")
+    implementation("org.springframework.boot:spring-boot-starter-data-jpa")
+    implementation("org.springframework.boot:spring-boot-starter-web")
+    implementation("org.apache.poi:poi-ooxml:5.3.0")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
+    implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-cbor")
+    implementation("org.openjdk.jmh:jmh-core:$jmhVersion")
+    annotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
+    runtimeOnly("com.h2database:h2")
+}
+
+/*
+ * ./gradlew -p ../benchmarks jmh                      all benchmarks
+ * ./gradlew -p ../benchmarks jmh -Pjmh.includes=Export  benchmarks matching a regex
+ * ./gradlew -p ../benchmarks jmh -Pjmh.args="-p rows=10000 -f 1"
+ *
+ * Results are written as JSON to build/results/jmh/results.json.
+ */
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks and writes JSON results."
+    dependsOn(tasks.classes)
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+
+    val results = layout.buildDirectory.file("results/jmh/results.json")
+    outputs.file(results)
+    outputs.upToDateWhen { false }
+    doFirst { results.get().asFile.parentFile.mkdirs() }
+
+    args("-rf", "json", "-rff", results.get().asFile.absolutePath)
+    providers.gradleProperty("jmh.args").orNull?.let { args(it.split(" ").filter(String::isNotBlank)) }
+    providers.gradleProperty("jmh.includes").orNull?.let { args(it) }
+}
@@ -0,0 +1,4 @@
+rootProject.name = "demo-product-app-benchmarks"
+
+// Benchmarks compile against the backend sources directly
+includeBuild("../backend")
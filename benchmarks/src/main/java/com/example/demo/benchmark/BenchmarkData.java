@@ -0,0 +1,81 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.entity.Product;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Shared fixtures: deterministic product rows and an application context on in-memory H2.
+ */
+final class BenchmarkData {
+
+    static final List<String> CATEGORIES = List.of("電子機器", "食品", "衣類", "書籍", "日用品");
+    static final List<String> STATUSES = List.of("ACTIVE", "INACTIVE", "DISCONTINUED");
+    static final Set<String> CATEGORY_NAMES = Set.copyOf(CATEGORIES);
+
+    private static final int SEED_BATCH_SIZE = 5_000;
+
+    private BenchmarkData() {
+    }
+
+    /** Starts the backend without a web server, using {@code application-bench.yml}. */
+    static ConfigurableApplicationContext startContext() {
+        return new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("bench")
+                .logStartupInfo(false)
+                .run();
+    }
+
+    static Product product(int i) {
+        LocalDateTime timestamp = LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(i);
+        return Product.builder()
+                .id((long) i + 1)
+                .productCode(String.format("BM-%07d", i))
+                .productName("ベンチマーク商品 " + i)
+                .category(CATEGORIES.get(i % CATEGORIES.size()))
+                .price(BigDecimal.valueOf(100 + (i % 9_900), 0).add(new BigDecimal("0.50")))
+                .stockQuantity(i % 500)
+                .status(STATUSES.get(i % STATUSES.size()))
+                .description(i % 4 == 0 ? null : "ベンチマーク用の説明文です。商品番号 " + i)
+                .createdAt(timestamp)
+                .updatedAt(timestamp)
+                .build();
+    }
+
+    static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(product(i));
+        }
+        return products;
+    }
+
+    /** Replaces the products table content with {@code rows} generated rows. */
+    static void seedProducts(JdbcTemplate jdbcTemplate, int rows) {
+        jdbcTemplate.update("DELETE FROM products");
+        String sql = "INSERT INTO products (product_code, product_name, category, price, stock_quantity, status, "
+                + "description, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        for (int from = 0; from < rows; from += SEED_BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+            for (int i = from; i < Math.min(rows, from + SEED_BATCH_SIZE); i++) {
+                Product p = product(i);
+                batch.add(new Object[]{
+                        p.getProductCode(), p.getProductName(), p.getCategory(), p.getPrice(),
+                        p.getStockQuantity(), p.getStatus(), p.getDescription(),
+                        Timestamp.valueOf(p.getCreatedAt()), Timestamp.valueOf(p.getUpdatedAt())});
+            }
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+}
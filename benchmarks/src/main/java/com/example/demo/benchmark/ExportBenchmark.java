@@ -0,0 +1,78 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.FileFormat;
+import com.example.demo.dto.ProductSearchRequest;
+import com.example.demo.service.ExcelService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full export through {@link ExcelService} against in-memory H2, as a workbook or as CSV. Output
+ * goes to a byte counter, so the result includes query, row mapping and encoding but no disk I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ExportBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"XLSX", "CSV"})
+    public FileFormat format;
+
+    private ConfigurableApplicationContext context;
+    private ExcelService excelService;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkData.startContext();
+        BenchmarkData.seedProducts(context.getBean(JdbcTemplate.class), rows);
+        excelService = context.getBean(ExcelService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long exportAll() {
+        CountingOutputStream out = new CountingOutputStream();
+        excelService.export(new ProductSearchRequest(), format, out);
+        return out.count;
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
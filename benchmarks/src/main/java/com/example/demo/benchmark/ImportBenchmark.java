@@ -0,0 +1,146 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.config.ImportProperties;
+import com.example.demo.dto.ImportError;
+import com.example.demo.entity.Product;
+import com.example.demo.service.DelimitedReader;
+import com.example.demo.service.DelimitedWriter;
+import com.example.demo.service.ExcelServiceImpl;
+import com.example.demo.service.ImportPipeline;
+import com.example.demo.service.ImportProgress;
+import com.example.demo.service.ProductRowValidator;
+import com.example.demo.service.StreamingXlsxReader;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading an upload file and validating its rows, without the database writes.
+ * Every 17th row has an invalid status so the error path is exercised too.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class ImportBenchmark {
+
+    private static final String[] HEADERS = {
+            "商品コード", "商品名", "カテゴリ", "単価", "在庫数量", "ステータス", "説明"
+    };
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    private Path file;
+    private Path csvFile;
+    private ProductRowValidator validator;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("import-benchmark-", ".xlsx");
+        validator = new ProductRowValidator(BenchmarkData.CATEGORY_NAMES);
+
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100); OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet("商品一覧");
+            Row header = sheet.createRow(0);
+            for (int c = 0; c < HEADERS.length; c++) {
+                header.createCell(c).setCellValue(HEADERS[c]);
+            }
+            for (int i = 0; i < rows; i++) {
+                Product p = BenchmarkData.product(i);
+                Row row = sheet.createRow(i + 1);
+                row.createCell(0).setCellValue(p.getProductCode());
+                row.createCell(1).setCellValue(p.getProductName());
+                row.createCell(2).setCellValue(p.getCategory());
+                row.createCell(3).setCellValue(p.getPrice().doubleValue());
+                row.createCell(4).setCellValue(p.getStockQuantity());
+                row.createCell(5).setCellValue(i % 17 == 0 ? "UNKNOWN" : p.getStatus());
+                row.createCell(6).setCellValue(p.getDescription() != null ? p.getDescription() : "");
+            }
+            workbook.write(out);
+        }
+
+        csvFile = Files.createTempFile("import-benchmark-", ".csv");
+        try (OutputStream out = Files.newOutputStream(csvFile); DelimitedWriter writer = new DelimitedWriter(out, ',')) {
+            writer.writeBom();
+            for (String header : HEADERS) {
+                writer.field(header);
+            }
+            writer.endRow();
+            for (int i = 0; i < rows; i++) {
+                Product p = BenchmarkData.product(i);
+                writer.field(p.getProductCode());
+                writer.field(p.getProductName());
+                writer.field(p.getCategory());
+                writer.field(p.getPrice());
+                writer.field(p.getStockQuantity());
+                writer.field(i % 17 == 0 ? "UNKNOWN" : p.getStatus());
+                writer.field(p.getDescription());
+                writer.endRow();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(csvFile);
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) throws IOException {
+        StreamingXlsxReader.read(file, row -> {
+            if (row.getRowNum() > 0) {
+                blackhole.consume(ExcelServiceImpl.readProduct(row));
+            }
+        });
+    }
+
+    @Benchmark
+    public void parseCsv(Blackhole blackhole) throws IOException {
+        DelimitedReader.read(csvFile, ',', row -> {
+            if (row.getRowNum() > 0) {
+                blackhole.consume(ExcelServiceImpl.readProduct(row));
+            }
+        });
+    }
+
+    /** Same work as {@link #parseAndValidate} spread over the import pipeline's worker threads. */
+    @Benchmark
+    public void pipeline(Blackhole blackhole) throws IOException {
+        new ImportPipeline(validator, new ImportProperties.Pipeline())
+                .run(file, new ImportProgress(new ImportProperties().getMaxErrors()), blackhole::consume);
+    }
+
+    @Benchmark
+    public void parseAndValidate(Blackhole blackhole) throws IOException {
+        StreamingXlsxReader.read(file, row -> {
+            if (row.getRowNum() > 0) {
+                List<ImportError> errors = validator.validate(row.getRowNum() + 1, ExcelServiceImpl.readProduct(row));
+                blackhole.consume(errors);
+            }
+        });
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.config.JacksonConfig;
+import com.example.demo.dto.PageResponse;
+import com.example.demo.dto.ProductListItem;
+import com.example.demo.entity.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of a search response page with the application's Jackson configuration,
+ * as full entities and as the list projection the search API returns, in JSON and in the
+ * binary formats offered to service clients. {@code readPage} is the client side: parsing the
+ * encoded page into list items.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    @Param({"ENTITY", "LIST_ITEM"})
+    public View view;
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    public Format format;
+
+    private ObjectMapper objectMapper;
+    private PageResponse<?> page;
+    private byte[] encodedPage;
+    private JavaType listPageType;
+
+    public enum View { ENTITY, LIST_ITEM }
+
+    public enum Format { JSON, SMILE, CBOR }
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        new JacksonConfig().jsonCustomizer().customize(builder);
+        ObjectMapper json = builder.build();
+        objectMapper = switch (format) {
+            case JSON -> json;
+            case SMILE -> json.copyWith(new SmileFactory());
+            case CBOR -> json.copyWith(new CBORFactory());
+        };
+        listPageType = objectMapper.getTypeFactory()
+                .constructParametricType(PageResponse.class, ProductListItem.class);
+        List<Product> products = BenchmarkData.products(pageSize);
+        List<?> rows = view == View.ENTITY
+                ? products
+                : products.stream().map(SerializationBenchmark::listItem).toList();
+        page = PageResponse.builder()
+                .data(List.copyOf(rows))
+                .total(3_000)
+                .success(true)
+                .current(1)
+                .pageSize(pageSize)
+                .build();
+        encodedPage = objectMapper.writeValueAsBytes(page);
+    }
+
+    private static ProductListItem listItem(Product product) {
+        ProductListItem item = new ProductListItem();
+        item.setId(product.getId());
+        item.setProductCode(product.getProductCode());
+        item.setProductName(product.getProductName());
+        item.setCategory(product.getCategory());
+        item.setPrice(product.getPrice());
+        item.setStockQuantity(product.getStockQuantity());
+        item.setStatus(product.getStatus());
+        item.setUpdatedAt(product.getUpdatedAt());
+        return item;
+    }
+
+    @Benchmark
+    public byte[] writePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public PageResponse<ProductListItem> readPage() throws IOException {
+        return objectMapper.readValue(encodedPage, listPageType);
+    }
+}
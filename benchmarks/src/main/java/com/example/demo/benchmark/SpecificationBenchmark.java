@@ -0,0 +1,93 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.ProductSearchRequest;
+import com.example.demo.entity.Product;
+import com.example.demo.repository.ProductSpecification;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Building the search criteria query from a request, with and without Hibernate's
+ * translation of the criteria tree. No SQL is executed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpecificationBenchmark {
+
+    public enum Filter { KEYWORD_LIKE, KEYWORD_IDS, ALL_FILTERS }
+
+    @Param({"KEYWORD_LIKE", "KEYWORD_IDS", "ALL_FILTERS"})
+    public Filter filter;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private CriteriaBuilder cb;
+    private ProductSearchRequest request;
+    private List<Long> keywordMatchIds;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkData.startContext();
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        cb = entityManager.getCriteriaBuilder();
+
+        request = new ProductSearchRequest();
+        request.setKeyword("イヤホン");
+        if (filter == Filter.KEYWORD_IDS) {
+            keywordMatchIds = LongStream.rangeClosed(1, 1_000).boxed().toList();
+        }
+        if (filter == Filter.ALL_FILTERS) {
+            request.setCategory("電子機器");
+            request.setStatus("ACTIVE");
+            request.setPriceMin(new BigDecimal("1000"));
+            request.setPriceMax(new BigDecimal("50000"));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        context.close();
+    }
+
+    @Benchmark
+    public CriteriaQuery<Product> buildCriteria() {
+        Specification<Product> spec = ProductSpecification.search(request, keywordMatchIds);
+        CriteriaQuery<Product> query = cb.createQuery(Product.class);
+        Root<Product> root = query.from(Product.class);
+        query.where(spec.toPredicate(root, query, cb));
+        return query;
+    }
+
+    @Benchmark
+    public TypedQuery<Product> buildQuery() {
+        return entityManager.createQuery(buildCriteria());
+    }
+}
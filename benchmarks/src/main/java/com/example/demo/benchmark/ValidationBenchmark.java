@@ -0,0 +1,60 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.Product;
+import com.example.demo.service.ProductRowValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of validating a single upload row with {@link ProductRowValidator}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private static final int ROWS = 1024;
+
+    /** Share of rows, in percent, that carry one or more invalid fields. */
+    @Param({"0", "10"})
+    public int invalidPercent;
+
+    private ProductRowValidator validator;
+    private Product[] rows;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        validator = new ProductRowValidator(BenchmarkData.CATEGORY_NAMES);
+        rows = BenchmarkData.products(ROWS).toArray(Product[]::new);
+        for (int i = 0; i < ROWS; i++) {
+            if (i % 100 < invalidPercent) {
+                rows[i].setProductCode("不正なコード" + i);
+                rows[i].setPrice(BigDecimal.valueOf(-1));
+                rows[i].setStatus("UNKNOWN");
+            }
+        }
+    }
+
+    @Benchmark
+    public List<?> validateRow() {
+        int i = next++ & (ROWS - 1);
+        return validator.validate(i + 2, rows[i]);
+    }
+}
@@ -77,7 +77,7 @@ export const ImportModal = ({ open, onClose, onSuccess }: ImportModalProps) => {
               <Space>
                 <Text>
                   処理件数: {result.totalRows}件 / 新規: {result.insertedCount}件 / 更新:{' '}
-                  {result.updatedCount}件
+                  {result.updatedCount}件 / 変更なし: {result.unchangedCount}件
                 </Text>
                 {result.errorCount > 0 && (
                   <Text type="danger">エラー: {result.errorCount}件</Text>
@@ -85,6 +85,9 @@ export const ImportModal = ({ open, onClose, onSuccess }: ImportModalProps) => {
               </Space>
             }
           />
+          {result.errors.length < result.errorCount && (
+            <Text type="secondary">先頭{result.errors.length}件のエラーを表示しています</Text>
+          )}
           {result.errors.length > 0 && (
             <Table<ImportError>
               columns={errorColumns}
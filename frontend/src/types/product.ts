@@ -37,6 +37,7 @@ export interface ImportResult {
   totalRows: number;
   insertedCount: number;
   updatedCount: number;
+  unchangedCount: number;
   errorCount: number;
   errors: ImportError[];
 }
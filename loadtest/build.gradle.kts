@@ -0,0 +1,46 @@
+plugins {
+    java
+}
+
+group = "com.example"
+version = "0.0.1-SNAPSHOT"
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_21
+    targetCompatibility = JavaVersion.VERSION_21
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    implementation(platform("org.springframework.boot:spring-boot-dependencies:3.4.3"))
+    implementation("org.postgresql:postgresql")
+    implementation("com.fasterxml.jackson.core:jackson-databind")
+    implementation("org.hdrhistogram:HdrHistogram:2.2.2")
+}
+
+/*
+ * ./gradlew -p ../loadtest generate -Pargs="--rows=1000000"          bulk-load generated products
+ * ./gradlew -p ../loadtest load -Pargs="--rate=50 --duration=5m"     replay mixed traffic
+ *
+ * Options are listed in the class comments of CatalogGenerator and LoadDriver.
+ */
+fun JavaExec.configureTool(main: String) {
+    group = "load test"
+    dependsOn(tasks.classes)
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set(main)
+    providers.gradleProperty("args").orNull?.let { args(it.split(" ").filter(String::isNotBlank)) }
+}
+
+tasks.register<JavaExec>("generate") {
+    description = "Bulk-loads generated products into PostgreSQL over COPY."
+    configureTool("com.example.demo.loadtest.CatalogGenerator")
+}
+
+tasks.register<JavaExec>("load") {
+    description = "Replays mixed API traffic at a fixed rate and reports latency percentiles."
+    configureTool("com.example.demo.loadtest.LoadDriver")
+}
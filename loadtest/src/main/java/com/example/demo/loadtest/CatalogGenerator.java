@@ -0,0 +1,179 @@
+package com.example.demo.loadtest;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk-loads generated products ({@link ProductGenerator}) over the COPY protocol.
+ *
+ * <p>Rows are split into chunks that several connections copy in parallel, one transaction per
+ * chunk. Secondary indexes are dropped first and rebuilt once at the end, which is much faster
+ * than maintaining them row by row; the primary key and the unique product code index stay.
+ *
+ * <pre>
+ * --url=jdbc:postgresql://localhost:5432/demo  --user=demo  --password=demo
+ * --rows=1000000       number of products to generate
+ * --start=1            number of the first generated product (codes are PRD-%08d)
+ * --threads=4          parallel COPY connections
+ * --chunk=100000       rows per COPY transaction
+ * --truncate           empty the products table first
+ * --keep-indexes       leave secondary indexes in place while loading
+ * </pre>
+ */
+public final class CatalogGenerator {
+
+    private static final String COPY_SQL = """
+            COPY products (product_code, product_name, category, price, stock_quantity, status,
+                           description, created_at, updated_at) FROM STDIN
+            """;
+    private static final String SECONDARY_INDEXES_SQL = """
+            SELECT i.indexname, i.indexdef
+              FROM pg_indexes i
+             WHERE i.schemaname = current_schema() AND i.tablename = 'products'
+               AND NOT EXISTS (SELECT 1 FROM pg_constraint c WHERE c.conname = i.indexname)
+            """;
+    private static final int COPY_BUFFER_SIZE = 1 << 20;
+    private static final int FLUSH_CHARS = 64 * 1024;
+
+    private final String url;
+    private final String user;
+    private final String password;
+
+    private CatalogGenerator(String url, String user, String password) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        CatalogGenerator generator = new CatalogGenerator(
+                options.get("url", "jdbc:postgresql://localhost:5432/demo"),
+                options.get("user", "demo"),
+                options.get("password", "demo"));
+        generator.run(
+                options.getLong("start", 1),
+                options.getLong("rows", 1_000_000),
+                options.getInt("threads", 4),
+                options.getInt("chunk", 100_000),
+                options.getFlag("truncate", false),
+                !options.getFlag("keep-indexes", false));
+    }
+
+    private void run(long start, long rows, int threads, int chunk, boolean truncate, boolean deferIndexes)
+            throws Exception {
+        long began = System.nanoTime();
+        Map<String, String> dropped = new LinkedHashMap<>();
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            if (truncate) {
+                statement.execute("TRUNCATE products RESTART IDENTITY");
+            }
+            if (deferIndexes) {
+                try (ResultSet indexes = statement.executeQuery(SECONDARY_INDEXES_SQL)) {
+                    while (indexes.next()) {
+                        dropped.put(indexes.getString(1), indexes.getString(2));
+                    }
+                }
+                for (String index : dropped.keySet()) {
+                    statement.execute("DROP INDEX " + index);
+                }
+                log("Dropped %d secondary indexes for the load", dropped.size());
+            }
+        }
+
+        try {
+            copyInParallel(start, rows, threads, chunk);
+            log("Copied %,d rows in %s", rows, elapsed(began));
+        } finally {
+            // Chunks copied before a failure stay committed, so the indexes are needed either way
+            try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+                statement.execute("SET maintenance_work_mem = '512MB'");
+                for (Map.Entry<String, String> index : dropped.entrySet()) {
+                    long indexBegan = System.nanoTime();
+                    statement.execute(index.getValue());
+                    log("Rebuilt %s in %s", index.getKey(), elapsed(indexBegan));
+                }
+                // Also sets the visibility map so index-only scans work right away
+                statement.execute("VACUUM ANALYZE products");
+            }
+        }
+        log("Done in %s. Restart the backend so its caches and keyword index see the new rows", elapsed(began));
+    }
+
+    private void copyInParallel(long start, long rows, int threads, int chunk) throws Exception {
+        AtomicLong nextChunk = new AtomicLong(start);
+        AtomicLong copied = new AtomicLong();
+        long end = start + rows;
+        long began = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> workers = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> {
+                    try (Connection connection = connect()) {
+                        long from;
+                        while ((from = nextChunk.getAndAdd(chunk)) < end) {
+                            long to = Math.min(from + chunk, end);
+                            copy(connection, from, to);
+                            long total = copied.addAndGet(to - from);
+                            double seconds = (System.nanoTime() - began) / 1e9;
+                            log("%,d / %,d rows (%,.0f rows/s)", total, rows, total / seconds);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+    }
+
+    /** Copies rows {@code [from, to)} in one transaction. */
+    private static void copy(Connection connection, long from, long to) throws SQLException, IOException {
+        PGConnection pg = connection.unwrap(PGConnection.class);
+        StringBuilder rows = new StringBuilder(FLUSH_CHARS + 1024);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new PGCopyOutputStream(pg, COPY_SQL, COPY_BUFFER_SIZE), StandardCharsets.UTF_8), COPY_BUFFER_SIZE)) {
+            for (long n = from; n < to; n++) {
+                ProductGenerator.appendCopyRow(n, rows);
+                if (rows.length() >= FLUSH_CHARS) {
+                    out.append(rows);
+                    rows.setLength(0);
+                }
+            }
+            out.append(rows);
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        return DriverManager.getConnection(url, user, password);
+    }
+
+    private static String elapsed(long beganNanos) {
+        return String.format("%.1fs", (System.nanoTime() - beganNanos) / 1e9);
+    }
+
+    private static void log(String format, Object... args) {
+        System.out.printf("[generate] " + format + "%n", args);
+    }
+}
@@ -0,0 +1,339 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a mix of search, export and import requests against a running backend at a fixed
+ * arrival rate and reports throughput and latency percentiles per operation.
+ *
+ * <p>Requests are started on schedule whether or not earlier ones have finished (an open
+ * model), and latency is measured from the scheduled start. A slow server therefore shows up
+ * as higher latency instead of silently lowering the offered load.
+ *
+ * <pre>
+ * --base-url=http://localhost:8080
+ * --rate=20                        requests per second over all operations
+ * --duration=60s                   measured run time, after the warm-up
+ * --warmup=10s                     load applied but left out of the summary
+ * --mix=search:90,export:5,import:5
+ * --export-format=CSV              XLSX, CSV or TSV
+ * --import-rows=200                rows per uploaded import file
+ * --max-in-flight=1000             arrivals beyond this are counted as dropped
+ * --report-every=10s
+ * </pre>
+ */
+public final class LoadDriver {
+
+    private static final List<String> STATUSES = List.of("ACTIVE", "INACTIVE", "DISCONTINUED");
+    private static final List<String> SORT_FIELDS = List.of("productName", "price", "stockQuantity", "updatedAt");
+    private static final String IMPORT_FIELDS = "productCode,productName,category,price,stockQuantity,status,description";
+    private static final int IMPORT_POOL_PAGES = 10;
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private enum Operation { SEARCH, EXPORT, IMPORT }
+
+    private final URI baseUri;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Operation, Integer> mix;
+    private final int totalWeight;
+    private final String exportFormat;
+    private final int importRows;
+    private final List<String> nouns = ProductGenerator.nouns();
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+    private List<JsonNode> importPool = List.of();
+
+    private LoadDriver(Options options) {
+        this.baseUri = URI.create(options.get("base-url", "http://localhost:8080"));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.mix = parseMix(options.get("mix", "search:90,export:5,import:5"));
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        this.exportFormat = options.get("export-format", "CSV");
+        this.importRows = options.getInt("import-rows", 200);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        new LoadDriver(options).run(
+                options.getDouble("rate", 20),
+                options.getDuration("duration", Duration.ofSeconds(60)),
+                options.getDuration("warmup", Duration.ofSeconds(10)),
+                options.getInt("max-in-flight", 1000),
+                options.getDuration("report-every", Duration.ofSeconds(10)));
+    }
+
+    private void run(double rate, Duration duration, Duration warmup, int maxInFlight, Duration reportEvery)
+            throws Exception {
+        if (mix.getOrDefault(Operation.IMPORT, 0) > 0) {
+            importPool = loadImportPool();
+            log("Import files are built from %d existing products", importPool.size());
+        }
+
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        long nextReport = start + reportEvery.toNanos();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicLong dropped = new AtomicLong();
+        SplittableRandom random = new SplittableRandom();
+        log("Offering %.1f requests/s for %s after a %s warm-up", rate, duration, warmup);
+
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * intervalNanos;
+            if (scheduled >= end) break;
+            while (System.nanoTime() < scheduled) {
+                LockSupport.parkNanos(scheduled - System.nanoTime());
+            }
+            if (scheduled >= nextReport) {
+                report("%6.0fs%s".formatted((scheduled - start) / 1e9, scheduled < measureFrom ? " (warm-up)" : ""),
+                        reportEvery.toNanos());
+                nextReport += reportEvery.toNanos();
+            }
+            if (inFlight.get() >= maxInFlight) {
+                dropped.incrementAndGet();
+                continue;
+            }
+
+            Operation operation = pick(random);
+            HttpRequest request = switch (operation) {
+                case SEARCH -> searchRequest(random);
+                case EXPORT -> exportRequest(random);
+                case IMPORT -> importRequest(random);
+            };
+            Stats target = stats.get(operation);
+            boolean measured = scheduled >= measureFrom;
+            inFlight.incrementAndGet();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        inFlight.decrementAndGet();
+                        target.record(System.nanoTime() - scheduled,
+                                failure == null && response.statusCode() < 400, measured);
+                    });
+        }
+
+        long drainUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            Thread.sleep(100);
+        }
+        report("drained", reportEvery.toNanos());
+        summary(duration, dropped.get(), inFlight.get());
+    }
+
+    private Operation pick(SplittableRandom random) {
+        int roll = random.nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) return entry.getKey();
+        }
+        throw new IllegalStateException();
+    }
+
+    /** Roughly what the list screen sends: mostly first pages, a filter or two, sometimes a sort. */
+    private HttpRequest searchRequest(SplittableRandom random) {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (random.nextInt(100) < 50) {
+            params.put("category", ProductGenerator.CATEGORIES.get(random.nextInt(ProductGenerator.CATEGORIES.size())));
+        }
+        if (random.nextInt(100) < 30) {
+            params.put("status", random.nextInt(100) < 80 ? "ACTIVE" : STATUSES.get(random.nextInt(STATUSES.size())));
+        }
+        if (random.nextInt(100) < 20) {
+            int min = random.nextInt(10) * 1000;
+            params.put("priceMin", Integer.toString(min));
+            params.put("priceMax", Integer.toString(min + 5000));
+        }
+        if (random.nextInt(100) < 15) {
+            params.put("keyword", nouns.get(random.nextInt(nouns.size())));
+        }
+        if (random.nextInt(100) < 50) {
+            params.put("sorter", SORT_FIELDS.get(random.nextInt(SORT_FIELDS.size()))
+                    + (random.nextBoolean() ? ",asc" : ",desc"));
+        }
+        params.put("current", Integer.toString(random.nextInt(100) < 70 ? 1 : 2 + random.nextInt(9)));
+        params.put("pageSize", "20");
+        if (random.nextInt(100) < 10) {
+            params.put("facets", "true");
+        }
+        return HttpRequest.newBuilder(uri("/api/products", params)).GET().build();
+    }
+
+    /** Exports are always filtered by category and status, like the download button on a filtered list. */
+    private HttpRequest exportRequest(SplittableRandom random) {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("format", exportFormat);
+        params.put("category", ProductGenerator.CATEGORIES.get(random.nextInt(ProductGenerator.CATEGORIES.size())));
+        params.put("status", STATUSES.get(random.nextInt(STATUSES.size())));
+        return HttpRequest.newBuilder(uri("/api/products/export", params)).GET().build();
+    }
+
+    /** Re-uploads a sample of existing products with new stock quantities as a CSV file. */
+    private HttpRequest importRequest(SplittableRandom random) {
+        StringBuilder csv = new StringBuilder("商品コード,商品名,カテゴリ,単価,在庫数量,ステータス,説明\n");
+        for (int i = 0; i < importRows && !importPool.isEmpty(); i++) {
+            JsonNode product = importPool.get(random.nextInt(importPool.size()));
+            StringJoiner row = new StringJoiner(",", "", "\n");
+            row.add(csvField(product.path("productCode").asText()));
+            row.add(csvField(product.path("productName").asText()));
+            row.add(csvField(product.path("category").asText()));
+            row.add(product.path("price").asText());
+            row.add(Integer.toString(random.nextInt(501)));
+            row.add(product.path("status").asText());
+            row.add(csvField(product.path("description").asText("")));
+            csv.append(row);
+        }
+
+        String boundary = UUID.randomUUID().toString();
+        String body = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"load-test.csv\"\r\n"
+                + "Content-Type: text/csv\r\n\r\n"
+                + csv
+                + "\r\n--" + boundary + "--\r\n";
+        return HttpRequest.newBuilder(baseUri.resolve("/api/products/import"))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                .build();
+    }
+
+    private List<JsonNode> loadImportPool() throws IOException, InterruptedException {
+        List<JsonNode> products = new ArrayList<>();
+        String cursor = null;
+        for (int page = 0; page < IMPORT_POOL_PAGES; page++) {
+            Map<String, String> params = new LinkedHashMap<>();
+            params.put("pagination", "CURSOR");
+            params.put("countMode", "NONE");
+            params.put("pageSize", "100");
+            params.put("fields", IMPORT_FIELDS);
+            if (cursor != null) {
+                params.put("cursor", cursor);
+            }
+            HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(uri("/api/products", params)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Could not read products for import files: " + response.statusCode());
+            }
+            JsonNode json = objectMapper.readTree(response.body());
+            json.path("data").forEach(products::add);
+            cursor = json.path("nextCursor").asText(null);
+            if (cursor == null) break;
+        }
+        if (products.isEmpty()) {
+            throw new IllegalStateException("No products to build import files from; load a catalog first");
+        }
+        return products;
+    }
+
+    private URI uri(String path, Map<String, String> params) {
+        StringJoiner query = new StringJoiner("&");
+        params.forEach((name, value) -> query.add(name + "=" + URLEncoder.encode(value, StandardCharsets.UTF_8)));
+        return baseUri.resolve(path + "?" + query);
+    }
+
+    private void report(String label, long intervalNanos) {
+        StringBuilder line = new StringBuilder("[load] ").append(label);
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Histogram interval = entry.getValue().progress.getIntervalHistogram();
+            if (interval.getTotalCount() == 0) continue;
+            line.append(String.format("  %s %.1f/s p50=%s p99=%s",
+                    entry.getKey().name().toLowerCase(), interval.getTotalCount() * 1e9 / intervalNanos,
+                    millis(interval.getValueAtPercentile(50)), millis(interval.getValueAtPercentile(99))));
+        }
+        System.out.println(line);
+    }
+
+    private void summary(Duration duration, long dropped, int unfinished) {
+        System.out.println();
+        System.out.printf("%-8s %9s %7s %10s %9s %9s %9s %9s%n",
+                "", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Stats s = entry.getValue();
+            Histogram total = s.measured.getIntervalHistogram();
+            if (total.getTotalCount() == 0) continue;
+            System.out.printf("%-8s %9d %7d %10.1f %9s %9s %9s %9s%n",
+                    entry.getKey().name().toLowerCase(), total.getTotalCount(), s.errors.get(),
+                    total.getTotalCount() / (double) duration.toSeconds(),
+                    millis(total.getValueAtPercentile(50)), millis(total.getValueAtPercentile(95)),
+                    millis(total.getValueAtPercentile(99)), millis(total.getMaxValue()));
+        }
+        if (dropped > 0 || unfinished > 0) {
+            System.out.printf("%nNot sent (too many in flight): %d, still running at exit: %d%n", dropped, unfinished);
+        }
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : value.split(",")) {
+            String[] nameAndWeight = part.split(":");
+            mix.put(Operation.valueOf(nameAndWeight[0].trim().toUpperCase()), Integer.parseInt(nameAndWeight[1].trim()));
+        }
+        return mix;
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1f", nanos / 1e6);
+    }
+
+    private static void log(String format, Object... args) {
+        System.out.printf("[load] " + format + "%n", args);
+    }
+
+    /**
+     * Latencies of one operation: everything for the progress lines, and separately the requests
+     * scheduled after the warm-up for the summary.
+     */
+    private static final class Stats {
+
+        final Recorder progress = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+        final Recorder measured = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+        final AtomicLong errors = new AtomicLong();
+
+        void record(long latencyNanos, boolean success, boolean afterWarmup) {
+            long value = Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS);
+            progress.recordValue(value);
+            if (afterWarmup) {
+                measured.recordValue(value);
+                if (!success) {
+                    errors.incrementAndGet();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.demo.loadtest;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic product rows with the distributions of {@code db/init/03_sample_data.sql}:
+ * categories in equal shares, names built from per-category prefix/noun/suffix lists, prices
+ * uniform within the category's range, stock 0-500, ACTIVE ~80% / INACTIVE ~15% /
+ * DISCONTINUED ~5%, created in 2024-2025 and updated up to 90 days later.
+ *
+ * <p>Row {@code n} always produces the same values, so any range of rows can be generated
+ * independently and in parallel.
+ */
+final class ProductGenerator {
+
+    static final List<String> CATEGORIES = List.of("電子機器", "食品", "衣類", "書籍", "日用品");
+
+    private static final CategoryParts[] PARTS = {
+            new CategoryParts(1_000, 100_000,
+                    new String[]{"スマート", "ワイヤレス", "ポータブル", "プロ", "ミニ", "ハイスペック", "超薄型", "高性能", "コンパクト", "デジタル"},
+                    new String[]{"イヤホン", "スピーカー", "キーボード", "マウス", "モニター", "タブレット", "カメラ", "プリンター", "ルーター", "USBハブ", "ウェブカメラ", "充電器"},
+                    new String[]{" Pro", " Lite", " Max", " SE", " Plus", " X1", " V2", " Air", " Neo", " Z"},
+                    new String[]{"最新技術を搭載した高品質な製品です。", "日常使いに最適な電子機器です。", "高い耐久性とパフォーマンスを実現しました。", "コンパクトで持ち運びに便利です。", "ビジネスにもプライベートにも活躍します。"}),
+            new CategoryParts(100, 5_000,
+                    new String[]{"国産", "有機", "特選", "厳選", "手作り", "本格", "天然", "無添加", "プレミアム", "北海道"},
+                    new String[]{"緑茶", "味噌", "醤油", "うどん", "そば", "ラーメン", "カレー", "チョコレート", "クッキー", "ジュース", "ジャム", "はちみつ"},
+                    new String[]{" セット", " 詰合せ", " 大容量", " ギフト", " お徳用", " 3個入", " 5袋入", " 限定品", " 特大", " ミニ"},
+                    new String[]{"厳選された素材を使用した自信の一品です。", "毎日の食卓を豊かにする美味しさです。", "贈り物にも最適な逸品です。", "安心安全な国内製造品です。", "素材の味を大切にした商品です。"}),
+            new CategoryParts(500, 30_000,
+                    new String[]{"オーガニック", "ストレッチ", "リネン", "シルク", "カジュアル", "フォーマル", "ヴィンテージ", "モダン", "クラシック", "スポーツ"},
+                    new String[]{"Tシャツ", "ジャケット", "パンツ", "ワンピース", "スカート", "コート", "セーター", "カーディガン", "シャツ", "ベスト", "パーカー", "ブラウス"},
+                    new String[]{" S", " M", " L", " XL", " ホワイト", " ブラック", " ネイビー", " グレー", " ベージュ", " ブルー"},
+                    new String[]{"着心地の良い素材を使用しています。", "シーズンを問わず着用できます。", "トレンドを取り入れたデザインです。", "洗濯機で洗えるイージーケア素材です。", "オフィスからカジュアルまで幅広く対応します。"}),
+            new CategoryParts(300, 10_000,
+                    new String[]{"入門", "実践", "完全ガイド", "図解", "最新版", "決定版", "よくわかる", "基礎から学ぶ", "プロが教える", "世界一やさしい"},
+                    new String[]{"プログラミング", "データサイエンス", "ビジネス戦略", "英会話", "日本史", "料理レシピ", "写真撮影", "経済学", "マーケティング", "デザイン", "心理学", "数学"},
+                    new String[]{" 入門編", " 応用編", " 第2版", " 第3版", " 上巻", " 下巻", " 完全版", " 改訂版", " 新装版", " ワークブック"},
+                    new String[]{"初心者から上級者まで幅広くカバーしています。", "豊富な図解でわかりやすく解説します。", "実践的な演習問題付きです。", "最新の情報を盛り込んだ改訂版です。", "ベストセラー著者による待望の新刊です。"}),
+            new CategoryParts(100, 8_000,
+                    new String[]{"エコ", "大容量", "除菌", "消臭", "速乾", "抗菌", "ナチュラル", "やさしい", "プロ仕様", "高吸収"},
+                    new String[]{"洗剤", "ハンドソープ", "ティッシュ", "タオル", "スポンジ", "掃除シート", "ゴミ袋", "歯ブラシ", "シャンプー", "ボディソープ", "ラップ", "食器洗い洗剤"},
+                    new String[]{" 詰替え", " 業務用", " お得パック", " 3本セット", " ミニ", " ジャンボ", " 無香料", " フローラル", " 携帯用", " 泡タイプ"},
+                    new String[]{"毎日の暮らしを快適にする定番商品です。", "環境にやさしい素材を使用しています。", "大容量でコストパフォーマンスに優れています。", "肌にやさしい成分を配合しています。", "使いやすさを追求した設計です。"}),
+    };
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private ProductGenerator() {
+    }
+
+    /** Product code of row {@code n}; eight digits keep clear of the four-digit sample codes. */
+    static String productCode(long n) {
+        return String.format("PRD-%08d", n);
+    }
+
+    /**
+     * Appends row {@code n} in COPY text format: tab-separated, newline-terminated. None of the
+     * generated values contain tabs, newlines or backslashes, so nothing needs escaping.
+     */
+    static void appendCopyRow(long n, StringBuilder out) {
+        SplittableRandom random = new SplittableRandom(n * 0x9E3779B97F4A7C15L);
+        int category = random.nextInt(CATEGORIES.size());
+        CategoryParts parts = PARTS[category];
+
+        int statusRoll = random.nextInt(100);
+        String status = statusRoll < 80 ? "ACTIVE" : statusRoll < 95 ? "INACTIVE" : "DISCONTINUED";
+        LocalDateTime createdAt = EPOCH.plusDays(random.nextInt(730)).plusMinutes(random.nextInt(1440));
+        LocalDateTime updatedAt = createdAt.plusDays(random.nextInt(91)).plusMinutes(random.nextInt(1440));
+
+        out.append(productCode(n)).append('\t')
+                .append(parts.prefixes[random.nextInt(parts.prefixes.length)])
+                .append(parts.nouns[random.nextInt(parts.nouns.length)])
+                .append(parts.suffixes[random.nextInt(parts.suffixes.length)]).append('\t')
+                .append(CATEGORIES.get(category)).append('\t')
+                .append(random.nextInt(parts.priceMin, parts.priceMax + 1)).append('\t')
+                .append(random.nextInt(501)).append('\t')
+                .append(status).append('\t')
+                .append(parts.descriptions[random.nextInt(parts.descriptions.length)]).append('\t');
+        TIMESTAMP.formatTo(createdAt, out);
+        out.append('\t');
+        TIMESTAMP.formatTo(updatedAt, out);
+        out.append('\n');
+    }
+
+    /** Product nouns of every category; each one matches a share of the generated names. */
+    static List<String> nouns() {
+        return Arrays.stream(PARTS).flatMap(parts -> Arrays.stream(parts.nouns)).toList();
+    }
+
+    private record CategoryParts(int priceMin, int priceMax, String[] prefixes, String[] nouns,
+                                 String[] suffixes, String[] descriptions) {
+    }
+}